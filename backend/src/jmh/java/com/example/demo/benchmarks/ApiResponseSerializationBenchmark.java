@@ -0,0 +1,53 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.responses.ApiResponse;
+import com.example.demo.responses.CourseResponse;
+import com.example.demo.utils.CourseMapper;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of writing the response envelope to JSON bytes, as the message converter does for every request
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+    private JsonMapper jsonMapper;
+    private ApiResponse<CourseResponse> course;
+    private ApiResponse<List<CourseResponse>> catalog;
+    private ApiResponse<Object> error;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        course = ApiResponse.success("Course retrieved successfully",
+                CourseMapper.toResponse(CourseFixtures.course(1L, 10, 8)));
+        catalog = ApiResponse.success("Courses retrieved successfully",
+                CourseFixtures.catalog(20, 10, 8).stream().map(CourseMapper::toResponse).collect(Collectors.toList()));
+        error = ApiResponse.error("Course not found");
+    }
+
+    @Benchmark
+    public byte[] course() {
+        return jsonMapper.writeValueAsBytes(course);
+    }
+
+    @Benchmark
+    public byte[] catalog() {
+        return jsonMapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] error() {
+        return jsonMapper.writeValueAsBytes(error);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.models.Chapter;
+import com.example.demo.models.Course;
+import com.example.demo.models.Video;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Course trees shaped like the catalog: a handful of chapters with several videos each
+ */
+final class CourseFixtures {
+
+    private CourseFixtures() {
+    }
+
+    static Course course(long id, int chapters, int videosPerChapter) {
+        Course course = new Course();
+        course.setId(id);
+        course.setTitle("Software Design Patterns " + id);
+        course.setSubtitle("Learn to apply design patterns in real projects");
+        course.setDescription("A hands-on course that walks through the classic design patterns, "
+                + "when they help, when they hurt and how to refactor towards them step by step.");
+        course.setPriceText("NT$ 7,599");
+        course.setButtonLabel("Buy now");
+        course.setImageUrl("https://cdn.example.com/courses/" + id + "/cover.png");
+        course.setImageSubtitle("Course cover");
+        course.setIsFeatured(id % 2 == 0);
+
+        List<Chapter> chapterList = new ArrayList<>(chapters);
+        for (int c = 0; c < chapters; c++) {
+            Chapter chapter = new Chapter();
+            chapter.setId(id * 1000 + c);
+            chapter.setCourse(course);
+            chapter.setTitle("Chapter " + (c + 1));
+            chapter.setDescription("What this chapter covers and why it matters");
+            chapter.setOrderIndex(c + 1);
+            List<Video> videos = new ArrayList<>(videosPerChapter);
+            for (int v = 0; v < videosPerChapter; v++) {
+                Video video = new Video();
+                video.setId(chapter.getId() * 100 + v);
+                video.setChapter(chapter);
+                video.setTitle("Lesson " + (c + 1) + "." + (v + 1));
+                video.setDescription("Walkthrough with code samples");
+                video.setVideoUrl("https://cdn.example.com/videos/" + video.getId() + ".m3u8");
+                video.setOrderIndex(v + 1);
+                video.setDuration(300 + v * 45);
+                videos.add(video);
+            }
+            chapter.setVideos(videos);
+            chapterList.add(chapter);
+        }
+        course.setChapters(chapterList);
+        return course;
+    }
+
+    static List<Course> catalog(int courses, int chapters, int videosPerChapter) {
+        List<Course> catalog = new ArrayList<>(courses);
+        for (int i = 1; i <= courses; i++) {
+            catalog.add(course(i, chapters, videosPerChapter));
+        }
+        return catalog;
+    }
+}
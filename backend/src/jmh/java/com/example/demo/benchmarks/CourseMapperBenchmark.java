@@ -0,0 +1,51 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.models.Course;
+import com.example.demo.responses.CourseResponse;
+import com.example.demo.utils.CourseMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping course trees to responses, for a single course and for a full catalog page
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseMapperBenchmark {
+
+    @Param({"5", "20"})
+    private int chapters;
+
+    @Param({"8"})
+    private int videosPerChapter;
+
+    private Course course;
+    private List<Course> catalog;
+
+    @Setup
+    public void setUp() {
+        course = CourseFixtures.course(1L, chapters, videosPerChapter);
+        catalog = CourseFixtures.catalog(20, chapters, videosPerChapter);
+    }
+
+    @Benchmark
+    public CourseResponse toResponse() {
+        return CourseMapper.toResponse(course);
+    }
+
+    @Benchmark
+    public List<CourseResponse> toResponseCatalog() {
+        List<CourseResponse> responses = new ArrayList<>(catalog.size());
+        for (Course each : catalog) {
+            responses.add(CourseMapper.toResponse(each));
+        }
+        return responses;
+    }
+}
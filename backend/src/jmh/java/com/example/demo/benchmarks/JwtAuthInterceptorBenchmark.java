@@ -0,0 +1,80 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.caches.VerifiedTokenCache;
+import com.example.demo.middleware.JwtAuthInterceptor;
+import com.example.demo.services.TokenRevocationService;
+import com.example.demo.utils.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the authentication interceptor: a protected request with a recently verified token,
+ * one whose token has to be verified, a request without a token and a public path
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthInterceptorBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hmac-sha256";
+
+    private JwtAuthInterceptor interceptor;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+    private MockHttpServletRequest cachedTokenRequest;
+    private MockHttpServletRequest uncachedTokenRequest;
+    private MockHttpServletRequest publicRequest;
+
+    @Setup
+    public void setUp() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 2592000000L);
+        verifiedTokenCache = new VerifiedTokenCache(10000, 600000L);
+        ReflectionTestUtils.setField(verifiedTokenCache, "jwtUtil", jwtUtil);
+        // No revocations are loaded, so revocation checks only touch the in-memory sets
+        TokenRevocationService tokenRevocationService = new TokenRevocationService();
+
+        interceptor = new JwtAuthInterceptor();
+        ReflectionTestUtils.setField(interceptor, "verifiedTokenCache", verifiedTokenCache);
+        ReflectionTestUtils.setField(interceptor, "tokenRevocationService", tokenRevocationService);
+
+        token = jwtUtil.generateToken(42L);
+        cachedTokenRequest = protectedRequest();
+        cachedTokenRequest.addHeader("Authorization", "Bearer " + token);
+        uncachedTokenRequest = protectedRequest();
+        uncachedTokenRequest.addHeader("Authorization", "Bearer " + token);
+        publicRequest = new MockHttpServletRequest("GET", "/api/courses/1");
+        verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public boolean cachedToken() throws Exception {
+        return interceptor.preHandle(cachedTokenRequest, new MockHttpServletResponse(), null);
+    }
+
+    @Benchmark
+    public boolean uncachedToken() throws Exception {
+        verifiedTokenCache.invalidate(token);
+        return interceptor.preHandle(uncachedTokenRequest, new MockHttpServletResponse(), null);
+    }
+
+    @Benchmark
+    public boolean missingToken() throws Exception {
+        return interceptor.preHandle(protectedRequest(), new MockHttpServletResponse(), null);
+    }
+
+    @Benchmark
+    public boolean publicPath() throws Exception {
+        return interceptor.preHandle(publicRequest, new MockHttpServletResponse(), null);
+    }
+
+    private static MockHttpServletRequest protectedRequest() {
+        return new MockHttpServletRequest("GET", "/api/orders/user/42");
+    }
+}
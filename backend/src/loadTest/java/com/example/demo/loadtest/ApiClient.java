@@ -0,0 +1,111 @@
+package com.example.demo.loadtest;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Minimal HTTP client for the backend API, used for seeding and by the scenarios
+ */
+public class ApiClient {
+    
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+    
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    
+    public ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+    
+    /**
+     * GET a path, returning the status code
+     */
+    public int get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    
+    /**
+     * POST a JSON body, returning the response
+     */
+    public HttpResponse<String> post(String path, Map<String, Object> body, String token)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+    
+    /**
+     * POST a JSON body and read a numeric field of the response data, failing on a non-2xx status
+     */
+    public long postForId(String path, Map<String, Object> body, String token, String... dataPath)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = post(path, body, token);
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("POST " + path + " failed with " + response.statusCode() + ": " + response.body());
+        }
+        JsonNode node = JSON.readTree(response.body()).path("data");
+        for (String field : dataPath) {
+            node = node.path(field);
+        }
+        return node.asLong();
+    }
+    
+    /**
+     * A signed-in user
+     */
+    public record Session(long userId, String token) {}
+    
+    /**
+     * Register a user, the JWT is taken from the token cookie
+     */
+    public Session register(String name, String username, String password) throws IOException, InterruptedException {
+        return sessionOf(post("/api/auth/register", Map.of("name", name, "username", username, "password", password), null));
+    }
+    
+    /**
+     * Log a user in, the JWT is taken from the token cookie
+     */
+    public Session login(String username, String password) throws IOException, InterruptedException {
+        return sessionOf(post("/api/auth/login", Map.of("username", username, "password", password), null));
+    }
+    
+    private static Session sessionOf(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Authentication failed with " + response.statusCode() + ": " + response.body());
+        }
+        long userId = JSON.readTree(response.body()).path("data").path("user").path("id").asLong();
+        return new Session(userId, tokenOf(response));
+    }
+    
+    private static String tokenOf(HttpResponse<String> response) {
+        return response.headers().allValues("set-cookie").stream()
+                .filter(cookie -> cookie.startsWith("token="))
+                .map(cookie -> cookie.substring("token=".length(), cookie.indexOf(';') < 0 ? cookie.length() : cookie.indexOf(';')))
+                .filter(token -> !token.isEmpty())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No token in response " + response.statusCode() + ": " + response.body()));
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.demo.loadtest;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds the catalog, users and orders with batched JDBC inserts, shaped like data.sql but at a configurable scale.
+ * Every user signs in with {@link #PASSWORD}; order numbers are "LT" followed by the zero-padded order index,
+ * so scenarios can address any seeded order without reading it first.
+ */
+public class FixtureLoader {
+    
+    public static final String USERNAME_PREFIX = "loaduser";
+    public static final String PASSWORD = "loadtest-password";
+    
+    private static final int BATCH_SIZE = 1000;
+    private static final String[] STATUSES = {"PAID", "PAID", "PAID", "CANCELLED", "PENDING"};
+    
+    /**
+     * How much data to seed
+     */
+    public record Scale(int courses, int chaptersPerCourse, int videosPerChapter, int users, int orders) {
+        
+        /**
+         * Read the scale from loadtest.courses, loadtest.chapters-per-course, loadtest.videos-per-chapter,
+         * loadtest.users and loadtest.orders system properties
+         */
+        public static Scale fromSystemProperties() {
+            return new Scale(
+                    Integer.getInteger("loadtest.courses", 1000),
+                    Integer.getInteger("loadtest.chapters-per-course", 5),
+                    Integer.getInteger("loadtest.videos-per-chapter", 6),
+                    Integer.getInteger("loadtest.users", 10000),
+                    Integer.getInteger("loadtest.orders", 100000));
+        }
+    }
+    
+    /**
+     * Ids of the seeded rows
+     */
+    public record Fixtures(List<Long> courseIds, List<Long> userIds, int orders) {
+        
+        public static String username(int userIndex) {
+            return USERNAME_PREFIX + userIndex;
+        }
+        
+        public static String orderNumber(int orderIndex) {
+            return String.format("LT%016d", orderIndex);
+        }
+    }
+    
+    private final DataSource dataSource;
+    private final Random random = new Random(42);
+    
+    public FixtureLoader(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    /**
+     * Insert the fixtures into an empty schema
+     */
+    public Fixtures load(Scale scale) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            List<Long> courseIds = insertCourses(connection, scale.courses());
+            List<Long> chapterIds = insertChapters(connection, courseIds, scale.chaptersPerCourse());
+            insertVideos(connection, chapterIds, scale.videosPerChapter());
+            List<Long> userIds = insertUsers(connection, scale.users());
+            insertOrders(connection, userIds, courseIds, scale.orders());
+            return new Fixtures(courseIds, userIds, scale.orders());
+        }
+    }
+    
+    private List<Long> insertCourses(Connection connection, int courses) throws SQLException {
+        String sql = "INSERT INTO courses (title, subtitle, description, price_text, button_label, image_url, " +
+                     "image_subtitle, is_featured) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < courses; i++) {
+                insert.setString(1, "軟體設計模式精通之旅 " + i);
+                insert.setString(2, "用一趟旅程,精通一套能落地的高效率設計思路");
+                insert.setString(3, "水球軟體學院提供最先進的軟體設計思路教材，並透過線上 Code Review 來帶你掌握進階軟體架構能力。" +
+                                    "只要每週投資 5 小時，就能打造不平等的優勢，成為硬核的 Coding 實戰高手。");
+                insert.setString(4, "看完課程介紹,立刻折價 3,000元");
+                insert.setString(5, "立刻體驗");
+                insert.setString(6, "/images/course_" + (i % 4) + ".png");
+                insert.setString(7, "軟體設計模式");
+                insert.setBoolean(8, i % 10 == 0);
+                addBatch(connection, insert, i);
+            }
+            flush(connection, insert);
+        }
+        return ids(connection, "courses");
+    }
+    
+    private List<Long> insertChapters(Connection connection, List<Long> courseIds, int chaptersPerCourse) throws SQLException {
+        String sql = "INSERT INTO chapters (course_id, title, description, order_index) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            int row = 0;
+            for (Long courseId : courseIds) {
+                for (int c = 1; c <= chaptersPerCourse; c++) {
+                    insert.setLong(1, courseId);
+                    insert.setString(2, "第 " + c + " 章");
+                    insert.setString(3, "本章介紹的設計模式與實戰情境");
+                    insert.setInt(4, c);
+                    addBatch(connection, insert, row++);
+                }
+            }
+            flush(connection, insert);
+        }
+        return ids(connection, "chapters");
+    }
+    
+    private void insertVideos(Connection connection, List<Long> chapterIds, int videosPerChapter) throws SQLException {
+        String sql = "INSERT INTO videos (chapter_id, title, description, video_url, order_index, duration) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            int row = 0;
+            for (Long chapterId : chapterIds) {
+                for (int v = 1; v <= videosPerChapter; v++) {
+                    insert.setLong(1, chapterId);
+                    insert.setString(2, "單元 " + v);
+                    insert.setString(3, "範例程式碼逐步講解");
+                    insert.setString(4, "https://www.youtube.com/embed/load-" + chapterId + "-" + v);
+                    insert.setInt(5, v);
+                    insert.setInt(6, 300 + random.nextInt(1500));
+                    addBatch(connection, insert, row++);
+                }
+            }
+            flush(connection, insert);
+        }
+    }
+    
+    private List<Long> insertUsers(Connection connection, int users) throws SQLException {
+        // One hash for everyone, at the cost the load-test server verifies with
+        String hash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        String sql = "INSERT INTO users (name, username, password, created_at) VALUES (?, ?, ?, ?)";
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < users; i++) {
+                insert.setString(1, "Load User " + i);
+                insert.setString(2, Fixtures.username(i));
+                insert.setString(3, hash);
+                insert.setTimestamp(4, now);
+                addBatch(connection, insert, i);
+            }
+            flush(connection, insert);
+        }
+        return ids(connection, "users");
+    }
+    
+    private void insertOrders(Connection connection, List<Long> userIds, List<Long> courseIds, int orders) throws SQLException {
+        String sql = "INSERT INTO orders (order_number, user_id, course_id, status, payment_deadline, payment_date, " +
+                     "remarks, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        LocalDateTime now = LocalDateTime.now();
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            for (int i = 0; i < orders; i++) {
+                // Spread over the last year, so listings page through realistic keysets
+                LocalDateTime createdAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+                String status = STATUSES[random.nextInt(STATUSES.length)];
+                insert.setString(1, Fixtures.orderNumber(i));
+                insert.setLong(2, userIds.get(random.nextInt(userIds.size())));
+                insert.setLong(3, courseIds.get(random.nextInt(courseIds.size())));
+                insert.setString(4, status);
+                insert.setTimestamp(5, Timestamp.valueOf("PENDING".equals(status) ? now.plusDays(3) : createdAt.plusDays(3)));
+                insert.setTimestamp(6, "PAID".equals(status) ? Timestamp.valueOf(createdAt.plusHours(1)) : null);
+                insert.setString(7, "CANCELLED".equals(status) ? "期限內未完成付款" : null);
+                insert.setTimestamp(8, Timestamp.valueOf(createdAt));
+                addBatch(connection, insert, i);
+            }
+            flush(connection, insert);
+        }
+    }
+    
+    private static void addBatch(Connection connection, PreparedStatement insert, int row) throws SQLException {
+        insert.addBatch();
+        if ((row + 1) % BATCH_SIZE == 0) {
+            flush(connection, insert);
+        }
+    }
+    
+    private static void flush(Connection connection, PreparedStatement insert) throws SQLException {
+        insert.executeBatch();
+        connection.commit();
+    }
+    
+    private static List<Long> ids(Connection connection, String table) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("SELECT id FROM " + table + " ORDER BY id")) {
+            while (rows.next()) {
+                ids.add(rows.getLong(1));
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator: a fixed number of virtual-thread clients issue requests back to back
+ * for a fixed duration, recording latency and errors per endpoint
+ */
+public class LoadDriver {
+    
+    /**
+     * One request of a scenario
+     */
+    @FunctionalInterface
+    public interface Request {
+        /**
+         * @return HTTP status code
+         */
+        int execute() throws Exception;
+    }
+    
+    /**
+     * A named request and its share of the traffic mix
+     */
+    public record Step(String endpoint, int weight, Request request) {}
+    
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    
+    /**
+     * Run the mix with the given number of concurrent clients
+     * @return per-endpoint results, sorted by endpoint
+     */
+    public Map<String, EndpointResult> run(List<Step> mix, int clients, Duration warmup, Duration duration)
+            throws InterruptedException {
+        runClients(mix, clients, warmup);
+        latencies.clear();
+        errors.clear();
+        
+        long start = System.nanoTime();
+        runClients(mix, clients, duration);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        Map<String, EndpointResult> results = new TreeMap<>();
+        latencies.forEach((endpoint, histogram) -> results.put(endpoint, new EndpointResult(
+                endpoint,
+                histogram.getCount(),
+                errors.getOrDefault(endpoint, new LongAdder()).sum(),
+                histogram.getCount() / seconds,
+                histogram.getMeanMicros(),
+                histogram.getPercentileMicros(50),
+                histogram.getPercentileMicros(95),
+                histogram.getPercentileMicros(99),
+                histogram.getPercentileMicros(100))));
+        return results;
+    }
+    
+    private void runClients(List<Step> mix, int clients, Duration duration) throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(Step::weight).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    Step step = pick(mix, totalWeight);
+                    long begin = System.nanoTime();
+                    boolean failed;
+                    try {
+                        int status = step.request().execute();
+                        failed = status >= 400;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    latencies.computeIfAbsent(step.endpoint(), k -> new LatencyHistogram())
+                            .record((System.nanoTime() - begin) / 1000);
+                    if (failed) {
+                        errors.computeIfAbsent(step.endpoint(), k -> new LongAdder()).increment();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+    
+    private static Step pick(List<Step> mix, int totalWeight) {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Step step : mix) {
+            ticket -= step.weight();
+            if (ticket < 0) {
+                return step;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+    
+    /**
+     * Results of one endpoint, latencies in microseconds
+     */
+    public record EndpointResult(String endpoint, long requests, long errors, double requestsPerSecond,
+                                 double meanMicros, long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+        
+        public String toRow() {
+            return String.format("%-32s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f",
+                    endpoint, requests, errors, requestsPerSecond,
+                    p50Micros / 1000.0, p95Micros / 1000.0, p99Micros / 1000.0, maxMicros / 1000.0);
+        }
+        
+        public static String header() {
+            return String.format("%-32s %9s %7s %10s %9s %9s %9s %9s",
+                    "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Boots the backend in-process on a random port.
+ * The database is an in-memory H2 in PostgreSQL mode, or the (empty) database named by the
+ * loadtest.jdbc-url, loadtest.jdbc-username and loadtest.jdbc-password system properties,
+ * e.g. a local Postgres started with docker compose.
+ */
+public class LoadTestServer implements AutoCloseable {
+    
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+    
+    /**
+     * @param name in-memory database name, distinct per run so runs never share data
+     * @param overrides properties layered over the load-test defaults
+     */
+    public LoadTestServer(String name, Map<String, Object> overrides) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        String jdbcUrl = System.getProperty("loadtest.jdbc-url");
+        if (jdbcUrl == null) {
+            properties.put("spring.datasource.url",
+                    "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+        } else {
+            properties.put("spring.datasource.url", jdbcUrl);
+            properties.put("spring.datasource.username", System.getProperty("loadtest.jdbc-username", ""));
+            properties.put("spring.datasource.password", System.getProperty("loadtest.jdbc-password", ""));
+        }
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.sql.init.mode", "never");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.root", "WARN");
+        // One client address drives everything, throttling would only measure the limiter
+        properties.put("auth.rate-limit.ip.capacity", "1000000");
+        properties.put("auth.rate-limit.ip.per-minute", "1000000");
+        properties.put("auth.rate-limit.username.capacity", "1000000");
+        properties.put("auth.rate-limit.username.per-minute", "1000000");
+        properties.put("auth.password.bcrypt-strength", "4");
+        properties.putAll(overrides);
+        
+        this.context = new SpringApplicationBuilder(DemoApplication.class)
+                .properties(properties)
+                .run();
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+    
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+    
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+    
+    @Override
+    public void close() {
+        context.close();
+    }
+}
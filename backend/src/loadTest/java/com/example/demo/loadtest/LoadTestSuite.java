@@ -0,0 +1,116 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.caches.CourseCatalogCache;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mixed catalog, auth and order traffic against a server seeded at a configurable scale,
+ * reporting throughput and latency percentiles per endpoint.
+ *
+ * Scale settings are described in {@link FixtureLoader.Scale#fromSystemProperties()}; load settings are
+ * loadtest.clients (default 100), loadtest.duration-seconds (60), loadtest.warmup-seconds (15),
+ * loadtest.sessions (200 signed-in users shared by the clients) and loadtest.report-file (CSV output, optional).
+ */
+public class LoadTestSuite {
+    
+    public static void main(String[] args) throws Exception {
+        FixtureLoader.Scale scale = FixtureLoader.Scale.fromSystemProperties();
+        int clients = Integer.getInteger("loadtest.clients", 100);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 60));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 15));
+        int sessionCount = Math.min(Integer.getInteger("loadtest.sessions", 200), scale.users());
+        String reportFile = System.getProperty("loadtest.report-file");
+        
+        try (LoadTestServer server = new LoadTestServer("loadtestsuite", Map.of())) {
+            long start = System.nanoTime();
+            FixtureLoader.Fixtures fixtures = new FixtureLoader(server.getContext().getBean(DataSource.class)).load(scale);
+            // Fixtures bypass the services, so the catalog snapshot is rebuilt by hand
+            server.getContext().getBean(CourseCatalogCache.class).reload();
+            System.out.printf("Seeded %s in %.1fs%n", scale, (System.nanoTime() - start) / 1e9);
+            
+            ApiClient client = new ApiClient(server.getBaseUrl());
+            List<ApiClient.Session> sessions = new ArrayList<>(sessionCount);
+            for (int i = 0; i < sessionCount; i++) {
+                sessions.add(client.login(FixtureLoader.Fixtures.username(i), FixtureLoader.PASSWORD));
+            }
+            
+            System.out.println("Running " + clients + " clients for " + duration.toSeconds() + "s");
+            Map<String, LoadDriver.EndpointResult> results =
+                    new LoadDriver().run(mix(client, fixtures, sessions), clients, warmup, duration);
+            
+            System.out.println(LoadDriver.EndpointResult.header());
+            results.values().forEach(result -> System.out.println(result.toRow()));
+            if (reportFile != null) {
+                writeCsv(Path.of(reportFile), results);
+                System.out.println("Report written to " + reportFile);
+            }
+        }
+    }
+    
+    /**
+     * Browsing-heavy traffic: most requests read the catalog, signed-in users check their orders
+     * and a few buy or sign in
+     */
+    private static List<LoadDriver.Step> mix(ApiClient client, FixtureLoader.Fixtures fixtures,
+                                             List<ApiClient.Session> sessions) {
+        List<Long> courseIds = fixtures.courseIds();
+        return List.of(
+                new LoadDriver.Step("GET /api/courses", 15, () -> client.get("/api/courses?limit=20", null)),
+                new LoadDriver.Step("GET /api/courses/featured", 10, () -> client.get("/api/courses/featured", null)),
+                new LoadDriver.Step("GET /api/courses/{id}", 20, () -> client.get("/api/courses/" + pick(courseIds), null)),
+                new LoadDriver.Step("GET /api/auth/verify", 10, () -> client.get("/api/auth/verify", pick(sessions).token())),
+                new LoadDriver.Step("POST /api/auth/login", 3, () -> {
+                    int user = ThreadLocalRandom.current().nextInt(fixtures.userIds().size());
+                    return client.post("/api/auth/login", Map.of(
+                            "username", FixtureLoader.Fixtures.username(user),
+                            "password", FixtureLoader.PASSWORD), null).statusCode();
+                }),
+                new LoadDriver.Step("GET /api/users/{id}", 7, () -> {
+                    ApiClient.Session session = pick(sessions);
+                    return client.get("/api/users/" + session.userId(), session.token());
+                }),
+                new LoadDriver.Step("GET /api/orders/user/{id}", 15, () -> {
+                    ApiClient.Session session = pick(sessions);
+                    return client.get("/api/orders/user/" + session.userId() + "?limit=20", session.token());
+                }),
+                new LoadDriver.Step("GET /api/orders/number/{number}", 12, () -> {
+                    String orderNumber = FixtureLoader.Fixtures.orderNumber(
+                            ThreadLocalRandom.current().nextInt(Math.max(1, fixtures.orders())));
+                    return client.get("/api/orders/number/" + orderNumber, pick(sessions).token());
+                }),
+                new LoadDriver.Step("POST /api/orders", 8, () -> {
+                    ApiClient.Session session = pick(sessions);
+                    return client.post("/api/orders",
+                            Map.of("userId", session.userId(), "courseId", pick(courseIds)), session.token()).statusCode();
+                }));
+    }
+    
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+    
+    private static void writeCsv(Path file, Map<String, LoadDriver.EndpointResult> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,errors,requests_per_second,mean_ms,p50_ms,p95_ms,p99_ms,max_ms");
+        for (LoadDriver.EndpointResult result : results.values()) {
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    result.endpoint(), result.requests(), result.errors(), result.requestsPerSecond(),
+                    result.meanMicros() / 1000.0, result.p50Micros() / 1000.0, result.p95Micros() / 1000.0,
+                    result.p99Micros() / 1000.0, result.maxMicros() / 1000.0));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines);
+    }
+}
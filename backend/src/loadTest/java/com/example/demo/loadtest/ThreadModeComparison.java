@@ -0,0 +1,69 @@
+package com.example.demo.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares platform-thread and virtual-thread request execution under the same load.
+ * Each mode boots its own server, seeds users with orders over HTTP and then drives the
+ * order listing, which holds a database connection for every request, with many concurrent clients.
+ *
+ * Settings are system properties: loadtest.clients (default 200), loadtest.duration-seconds (30),
+ * loadtest.warmup-seconds (10), loadtest.users (50), loadtest.orders-per-user (20)
+ * and loadtest.db-permits (10, the bulkhead and pool size).
+ */
+public class ThreadModeComparison {
+    
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 200);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 30));
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 10));
+        int users = Integer.getInteger("loadtest.users", 50);
+        int ordersPerUser = Integer.getInteger("loadtest.orders-per-user", 20);
+        String dbPermits = String.valueOf(Integer.getInteger("loadtest.db-permits", 10));
+        
+        Map<String, Map<String, LoadDriver.EndpointResult>> results = new LinkedHashMap<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            Map<String, Object> overrides = new HashMap<>();
+            overrides.put("spring.threads.virtual.enabled", String.valueOf(virtual));
+            overrides.put("spring.datasource.hikari.maximum-pool-size", dbPermits);
+            overrides.put("db.bulkhead.max-permits", dbPermits);
+            
+            System.out.println("Running " + mode + " threads with " + clients + " clients for " + duration.toSeconds() + "s");
+            try (LoadTestServer server = new LoadTestServer("threadmode_" + mode, overrides)) {
+                ApiClient client = new ApiClient(server.getBaseUrl());
+                List<LoadDriver.Step> mix = seed(client, users, ordersPerUser);
+                results.put(mode, new LoadDriver().run(mix, clients, warmup, duration));
+            }
+        }
+        
+        results.forEach((mode, endpoints) -> {
+            System.out.println();
+            System.out.println(mode + " threads");
+            System.out.println(LoadDriver.EndpointResult.header());
+            endpoints.values().forEach(result -> System.out.println(result.toRow()));
+        });
+    }
+    
+    /**
+     * Register users, give each of them orders and return the request mix reading them back
+     */
+    private static List<LoadDriver.Step> seed(ApiClient client, int users, int ordersPerUser) throws Exception {
+        long courseId = client.postForId("/api/courses", Map.of("title", "Load test course", "priceText", "$10"), null, "id");
+        List<LoadDriver.Step> mix = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            ApiClient.Session session = client.register("Load User " + i, "threadmode" + i, "password" + i);
+            for (int j = 0; j < ordersPerUser; j++) {
+                client.postForId("/api/orders", Map.of("userId", session.userId(), "courseId", courseId), session.token(), "id");
+            }
+            String path = "/api/orders/user/" + session.userId() + "?limit=20";
+            mix.add(new LoadDriver.Step("GET /api/orders/user/{id}", 1, () -> client.get(path, session.token())));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.caches;
+
+import com.example.demo.helpers.TransactionHelper;
+import com.example.demo.models.Course;
+import com.example.demo.repositories.ChapterRepository;
+import com.example.demo.repositories.CourseRepository;
+import com.example.demo.responses.CourseSummaryResponse;
+import com.example.demo.utils.CourseMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current course catalog snapshot in memory.
+ * Reads never touch the database; writes swap in a freshly loaded snapshot after they commit.
+ */
+@Component
+public class CourseCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalogCache.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ChapterRepository chapterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Spring Boot's application executor, reloads after a write run there instead of on the committing thread
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor reloadExecutor;
+
+    private final AtomicReference<CourseCatalogSnapshot> current = new AtomicReference<>();
+
+    // Serializes reloads so a later snapshot is never replaced by an earlier one.
+    // A lock rather than synchronized: a virtual thread blocked on a monitor during database I/O pins its carrier.
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    // Seeded from the clock so versions, and the ETags built from them, do not repeat across restarts
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Get the current snapshot, loading it on first use
+     */
+    public CourseCatalogSnapshot getSnapshot() {
+        CourseCatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadIfAbsent();
+    }
+
+    /**
+     * Reload the snapshot once the current transaction commits.
+     * The reload runs in the background, so readers see the previous snapshot until it is swapped in.
+     */
+    public void refreshAfterCommit() {
+        TransactionHelper.runAfterCommit(this::reloadQuietly, reloadExecutor);
+    }
+
+    /**
+     * Load the catalog from the database and swap it in as the current snapshot
+     */
+    public CourseCatalogSnapshot reload() {
+        reloadLock.lock();
+        try {
+            CourseCatalogSnapshot snapshot = loadSnapshot();
+            current.set(snapshot);
+            return snapshot;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Course catalog reload failed, serving the previous snapshot", e);
+        }
+    }
+
+    private CourseCatalogSnapshot loadIfAbsent() {
+        reloadLock.lock();
+        try {
+            CourseCatalogSnapshot snapshot = current.get();
+            return snapshot != null ? snapshot : reload();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private CourseCatalogSnapshot loadSnapshot() {
+        // Runs in its own read-only transaction, even when the first load happens inside a caller's transaction
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(true);
+        return template.execute(status -> {
+            // Three statements regardless of catalog size: courses with chapters, then chapters with videos,
+            // then the summary aggregates. The second query fills the videos of the chapters already
+            // in the persistence context.
+            List<Course> courses = courseRepository.findAllWithChapters();
+            chapterRepository.findAllWithVideos();
+            List<CourseSummaryResponse> summaries = courseRepository.findAllSummaries().stream()
+                    .map(CourseMapper::toSummaryResponse)
+                    .toList();
+            return new CourseCatalogSnapshot(version.incrementAndGet(), courses, summaries);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.demo.caches;
+
+import com.example.demo.models.Course;
+import com.example.demo.responses.CourseSummaryResponse;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned view of the course catalog
+ */
+public final class CourseCatalogSnapshot {
+
+    private final long version;
+    private final List<Course> courses;
+    private final List<Course> featuredCourses;
+    private final Map<Long, Course> coursesById;
+    private final List<CourseSummaryResponse> courseSummaries;
+
+    public CourseCatalogSnapshot(long version, List<Course> courses, List<CourseSummaryResponse> courseSummaries) {
+        this.version = version;
+        this.courses = List.copyOf(courses);
+        this.courseSummaries = List.copyOf(courseSummaries);
+        this.featuredCourses = this.courses.stream()
+                .filter(course -> Boolean.TRUE.equals(course.getIsFeatured()))
+                .toList();
+        Map<Long, Course> byId = new LinkedHashMap<>();
+        for (Course course : this.courses) {
+            byId.put(course.getId(), course);
+        }
+        this.coursesById = Map.copyOf(byId);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public List<Course> getFeaturedCourses() {
+        return featuredCourses;
+    }
+
+    public List<CourseSummaryResponse> getCourseSummaries() {
+        return courseSummaries;
+    }
+
+    public Optional<Course> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(coursesById.get(id));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.caches;
+
+import java.util.function.Supplier;
+
+/**
+ * One page of the course listing whose ETag and next cursor are known before its body is rendered,
+ * so a matching If-None-Match is answered without serializing the page
+ */
+public final class CoursePage {
+
+    private final String tag;
+    private final String nextCursor;
+    private final Supplier<byte[]> body;
+
+    /**
+     * @param tag opaque tag that changes whenever the body changes, without quotes
+     * @param nextCursor cursor of the next page, null on the last page
+     * @param body renders the UTF-8 JSON body
+     */
+    public CoursePage(String tag, String nextCursor, Supplier<byte[]> body) {
+        this.tag = tag;
+        this.nextCursor = nextCursor;
+        this.body = body;
+    }
+
+    /**
+     * Quoted strong ETag of the page body
+     */
+    public String getEtag() {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Cursor of the next page, null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Serialize the page, pages are served once so no gzip copy is kept
+     */
+    public RenderedResponse render() {
+        return new RenderedResponse(body.get(), tag, false);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.demo.caches;
+
+import com.example.demo.helpers.PageCursor;
+import com.example.demo.models.Course;
+import com.example.demo.responses.ApiResponse;
+import com.example.demo.responses.CourseResponse;
+import com.example.demo.responses.CourseSummaryResponse;
+import com.example.demo.utils.CourseMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pre-rendered JSON bodies for the catalog read endpoints.
+ * Bodies are rebuilt only when the catalog snapshot version changes, and their ETags derive from that version.
+ */
+@Component
+public class CourseResponseCache {
+
+    @Autowired
+    private CourseCatalogCache courseCatalogCache;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private final AtomicReference<RenderedCatalog> current = new AtomicReference<>();
+
+    // Same idiom as CourseCatalogCache: requests waiting for a render park instead of pinning their carriers
+    private final ReentrantLock renderLock = new ReentrantLock();
+
+    /**
+     * Body for GET /api/courses
+     */
+    public RenderedResponse getCourseList() {
+        return currentCatalog().courseList;
+    }
+
+    /**
+     * Body for GET /api/courses?view=summary
+     */
+    public RenderedResponse getCourseSummaries() {
+        return currentCatalog().courseSummaries;
+    }
+
+    /**
+     * One page of GET /api/courses?limit=&cursor=, keyset on course id.
+     * Pages vary by cursor and limit, so they are rendered per request from the already mapped catalog,
+     * and only once the caller knows the client does not hold them already.
+     *
+     * @param summaries whether to list summaries instead of full courses
+     * @param afterId id of the last course on the previous page, null for the first page
+     */
+    public CoursePage getCoursePage(boolean summaries, Long afterId, int limit) {
+        RenderedCatalog catalog = currentCatalog();
+        String tag = Long.toString(catalog.version, 36) + (summaries ? "-summaries" : "-list")
+                + "-page-" + (afterId == null ? "first" : afterId) + "-" + limit;
+        return summaries
+                ? renderPage(catalog.courseSummaryResponses, CourseSummaryResponse::getId,
+                        "Successfully retrieved course summaries", afterId, limit, tag)
+                : renderPage(catalog.courseResponses, CourseResponse::getId,
+                        "Successfully retrieved course list", afterId, limit, tag);
+    }
+
+    /**
+     * Body for GET /api/courses when the cursor cannot be decoded
+     */
+    public RenderedResponse getInvalidCursor() {
+        return currentCatalog().invalidCursor;
+    }
+
+    /**
+     * Body for GET /api/courses/featured
+     */
+    public RenderedResponse getFeaturedCourses() {
+        return currentCatalog().featuredCourses;
+    }
+
+    /**
+     * Body for GET /api/courses/{id}, null when the course does not exist
+     */
+    public RenderedResponse getCourse(Long id) {
+        return currentCatalog().coursesById.get(id);
+    }
+
+    /**
+     * Body for GET /api/courses/{id} when the course does not exist
+     */
+    public RenderedResponse getCourseNotFound() {
+        return currentCatalog().courseNotFound;
+    }
+
+    private RenderedCatalog currentCatalog() {
+        CourseCatalogSnapshot snapshot = courseCatalogCache.getSnapshot();
+        RenderedCatalog rendered = current.get();
+        if (rendered != null && rendered.version >= snapshot.getVersion()) {
+            return rendered;
+        }
+        return render(snapshot);
+    }
+
+    private RenderedCatalog render(CourseCatalogSnapshot snapshot) {
+        renderLock.lock();
+        try {
+            RenderedCatalog rendered = current.get();
+            if (rendered != null && rendered.version >= snapshot.getVersion()) {
+                return rendered;
+            }
+
+            List<CourseResponse> courseResponses = new ArrayList<>(snapshot.getCourses().size());
+            Map<Long, RenderedResponse> coursesById = new HashMap<>();
+            String version = Long.toString(snapshot.getVersion(), 36);
+            for (Course course : snapshot.getCourses()) {
+                CourseResponse response = CourseMapper.toResponse(course);
+                courseResponses.add(response);
+                coursesById.put(course.getId(),
+                        render(ApiResponse.success("Successfully retrieved course", response), version + "-course-" + course.getId()));
+            }
+            List<CourseResponse> featuredResponses = courseResponses.stream()
+                    .filter(response -> Boolean.TRUE.equals(response.getIsFeatured()))
+                    .toList();
+
+            rendered = new RenderedCatalog(
+                    snapshot.getVersion(),
+                    List.copyOf(courseResponses),
+                    snapshot.getCourseSummaries(),
+                    render(ApiResponse.success("Successfully retrieved course list", courseResponses), version + "-list"),
+                    render(ApiResponse.success("Successfully retrieved course summaries", snapshot.getCourseSummaries()), version + "-summaries"),
+                    render(ApiResponse.success("Successfully retrieved featured courses", featuredResponses), version + "-featured"),
+                    Map.copyOf(coursesById),
+                    render(ApiResponse.error("Course not found"), version + "-not-found"),
+                    render(ApiResponse.error("Invalid cursor"), version + "-invalid-cursor")
+            );
+            current.set(rendered);
+            return rendered;
+        } finally {
+            renderLock.unlock();
+        }
+    }
+
+    private RenderedResponse render(ApiResponse<?> response, String tag) {
+        return new RenderedResponse(jsonMapper.writeValueAsBytes(response), tag);
+    }
+
+    private <T> CoursePage renderPage(List<T> items, ToLongFunction<T> idOf, String message,
+                                      Long afterId, int limit, String tag) {
+        // Items are sorted by id, so the page starts at the first id greater than the cursor
+        int from = afterId == null ? 0 : firstIndexAfter(items, idOf, afterId);
+        int to = Math.min(from + limit, items.size());
+        List<T> page = items.subList(from, to);
+        String nextCursor = to < items.size()
+                ? PageCursor.ofId(idOf.applyAsLong(page.get(page.size() - 1))).encode()
+                : null;
+        return new CoursePage(tag, nextCursor, () -> jsonMapper.writeValueAsBytes(ApiResponse.success(message, page)));
+    }
+
+    private static <T> int firstIndexAfter(List<T> items, ToLongFunction<T> idOf, long afterId) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (idOf.applyAsLong(items.get(mid)) <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * All rendered bodies for one catalog version
+     */
+    private static final class RenderedCatalog {
+        private final long version;
+        private final List<CourseResponse> courseResponses;
+        private final List<CourseSummaryResponse> courseSummaryResponses;
+        private final RenderedResponse courseList;
+        private final RenderedResponse courseSummaries;
+        private final RenderedResponse featuredCourses;
+        private final Map<Long, RenderedResponse> coursesById;
+        private final RenderedResponse courseNotFound;
+        private final RenderedResponse invalidCursor;
+
+        private RenderedCatalog(long version, List<CourseResponse> courseResponses,
+                                List<CourseSummaryResponse> courseSummaryResponses,
+                                RenderedResponse courseList, RenderedResponse courseSummaries,
+                                RenderedResponse featuredCourses, Map<Long, RenderedResponse> coursesById,
+                                RenderedResponse courseNotFound, RenderedResponse invalidCursor) {
+            this.version = version;
+            this.courseResponses = courseResponses;
+            this.courseSummaryResponses = courseSummaryResponses;
+            this.courseList = courseList;
+            this.courseSummaries = courseSummaries;
+            this.featuredCourses = featuredCourses;
+            this.coursesById = coursesById;
+            this.courseNotFound = courseNotFound;
+            this.invalidCursor = invalidCursor;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.caches;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once, kept as UTF-8 JSON bytes and, for larger bodies, gzip bytes.
+ * Each encoding carries its own strong ETag.
+ */
+public final class RenderedResponse {
+
+    // Below this size gzip framing costs more than it saves
+    static final int MIN_GZIP_SIZE = 256;
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+    /**
+     * @param body UTF-8 JSON bytes
+     * @param tag opaque tag that changes whenever the body changes, without quotes
+     */
+    public RenderedResponse(byte[] body, String tag) {
+        this(body, tag, true);
+    }
+
+    /**
+     * @param body UTF-8 JSON bytes
+     * @param tag opaque tag that changes whenever the body changes, without quotes
+     * @param compress whether to keep a gzip copy, false for bodies rendered per request and served once
+     */
+    public RenderedResponse(byte[] body, String tag, boolean compress) {
+        this.body = body;
+        this.gzipBody = compress && body.length >= MIN_GZIP_SIZE ? gzip(body) : null;
+        this.etag = "\"" + tag + "\"";
+        this.gzipEtag = "\"" + tag + "-gzip\"";
+    }
+
+    /**
+     * UTF-8 JSON bytes, callers must not modify the array
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Gzip-compressed JSON bytes, null when the body is too small to be worth compressing
+     */
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+
+    public boolean hasGzipBody() {
+        return gzipBody != null;
+    }
+
+    /**
+     * Quoted strong ETag of the plain body
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Quoted strong ETag of the gzip body, distinct from the plain one as the bytes differ
+     */
+    public String getGzipEtag() {
+        return gzipEtag;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.caches;
+
+import com.example.demo.helpers.TransactionHelper;
+import com.example.demo.responses.UserResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, expiring cache of user profiles by user ID, so /api/auth/verify and profile reads
+ * stop costing a database round trip per page view.
+ * Cached responses are shared between requests and must be treated as read-only.
+ */
+@Component
+public class UserProfileCache {
+    
+    private final ExpiringCache<Long, UserResponse> cache;
+    
+    // Bumped on every invalidation, a load that overlapped one is not kept
+    private final AtomicLong generation = new AtomicLong();
+    
+    public UserProfileCache(@Value("${users.profile-cache.max-size:10000}") int maxSize,
+                            @Value("${users.profile-cache.ttl-ms:300000}") long ttlMillis) {
+        this.cache = new ExpiringCache<>(maxSize, ttlMillis);
+    }
+    
+    /**
+     * Get a profile, loading and caching it on a miss
+     */
+    public UserResponse get(Long userId, Supplier<UserResponse> loader) {
+        UserResponse cached = cache.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long loadGeneration = generation.get();
+        UserResponse loaded = loader.get();
+        cache.put(userId, loaded);
+        if (generation.get() != loadGeneration) {
+            // An update committed while loading, the loaded profile may predate it
+            cache.invalidate(userId);
+        }
+        return loaded;
+    }
+    
+    /**
+     * Forget a profile once the current transaction commits
+     */
+    public void invalidateAfterCommit(Long userId) {
+        TransactionHelper.runAfterCommit(() -> invalidate(userId));
+    }
+    
+    /**
+     * Forget a profile
+     */
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        cache.invalidate(userId);
+    }
+    
+    public int size() {
+        return cache.size();
+    }
+    
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+    
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+    
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.caches;
+
+import com.example.demo.utils.JwtPrincipal;
+import com.example.demo.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Remembers tokens that passed signature verification, so repeat requests with the same token skip
+ * HMAC verification and claim parsing. Entries are keyed by the SHA-256 digest of the token, so raw tokens
+ * are never held in memory, and never outlive the token's own expiry.
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    private final ExpiringCache<String, JwtPrincipal> cache;
+    
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize,
+                              @Value("${jwt.cache.ttl-ms:600000}") long ttlMillis) {
+        this.cache = new ExpiringCache<>(maxSize, ttlMillis);
+    }
+    
+    /**
+     * Verify a token, from the cache when it was verified recently
+     * @return the verified principal, empty if the token is invalid or expired
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        String digest = digest(token);
+        JwtPrincipal cached = cache.get(digest);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        Optional<JwtPrincipal> principal = jwtUtil.verifyToken(token);
+        principal.ifPresent(verified -> cache.put(digest, verified, expiresAtMillis(verified)));
+        return principal;
+    }
+    
+    /**
+     * Forget a token, it will be verified again on its next use
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+    
+    /**
+     * Forget every token of a user
+     */
+    public void invalidateUser(Long userId) {
+        cache.invalidateIf(principal -> principal.getUserId().equals(userId));
+    }
+    
+    public int size() {
+        return cache.size();
+    }
+    
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+    
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+    
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+    
+    private static long expiresAtMillis(JwtPrincipal principal) {
+        return principal.getExpiresAt() == null ? Long.MAX_VALUE : principal.getExpiresAt().toEpochMilli();
+    }
+    
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts a BulkheadDataSource in front of the application DataSource.
+ * Permits default to the Hikari pool size, so requests wait on the bulkhead rather than inside the pool.
+ */
+@Configuration
+public class DatabaseBulkheadConfig {
+    
+    // Static: post-processors are created before regular beans
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource
+                        || !environment.getProperty("db.bulkhead.enabled", Boolean.class, true)) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int maxPermits = environment.getProperty("db.bulkhead.max-permits", Integer.class, poolSize);
+                long acquireTimeoutMillis = environment.getProperty("db.bulkhead.acquire-timeout-ms", Long.class, 3000L);
+                return new BulkheadDataSource(dataSource, maxPermits, acquireTimeoutMillis);
+            }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.config;
+
+import com.example.demo.caches.UserProfileCache;
+import com.example.demo.caches.VerifiedTokenCache;
+import com.example.demo.logging.CountingAsyncAppender;
+import com.example.demo.logging.SamplingTurboFilter;
+import com.example.demo.services.AuthThrottleService;
+import com.example.demo.services.AvatarThumbnailService;
+import com.example.demo.services.OrderExpiryScheduler;
+import com.example.demo.services.PasswordHashingService;
+import com.example.demo.services.TokenRevocationService;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the in-memory caches, worker pools, throttles and dropped log events as Micrometer meters.
+ * Request, repository and Hikari pool metrics come from Spring Boot; @Timed methods are timed by the TimedAspect.
+ */
+@Configuration
+public class MetricsConfig {
+    
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+    
+    @Bean
+    public MeterBinder applicationMetrics(VerifiedTokenCache verifiedTokenCache,
+                                          UserProfileCache userProfileCache,
+                                          PasswordHashingService passwordHashingService,
+                                          AvatarThumbnailService avatarThumbnailService,
+                                          AuthThrottleService authThrottleService,
+                                          TokenRevocationService tokenRevocationService,
+                                          OrderExpiryScheduler orderExpiryScheduler,
+                                          DataSource dataSource) {
+        return registry -> {
+            bindCache(registry, "verified-tokens", verifiedTokenCache,
+                    VerifiedTokenCache::size, VerifiedTokenCache::getHitCount,
+                    VerifiedTokenCache::getMissCount, VerifiedTokenCache::getEvictionCount);
+            bindCache(registry, "user-profiles", userProfileCache,
+                    UserProfileCache::size, UserProfileCache::getHitCount,
+                    UserProfileCache::getMissCount, UserProfileCache::getEvictionCount);
+            
+            Gauge.builder("auth.password.queue", passwordHashingService, PasswordHashingService::getQueueDepth)
+                    .description("Password hashing tasks waiting for a thread")
+                    .register(registry);
+            Gauge.builder("auth.password.active", passwordHashingService, PasswordHashingService::getActiveCount)
+                    .description("Password hashing threads busy")
+                    .register(registry);
+            FunctionTimer.builder("auth.password.hashing", passwordHashingService,
+                            PasswordHashingService::getHashCount, PasswordHashingService::getHashNanos, TimeUnit.NANOSECONDS)
+                    .description("Time spent hashing and verifying passwords, excluding queueing")
+                    .register(registry);
+            FunctionCounter.builder("auth.password.rejected", passwordHashingService, PasswordHashingService::getRejectedCount)
+                    .description("Password operations shed because the hashing pool was saturated")
+                    .register(registry);
+            
+            Gauge.builder("auth.throttle.keys", authThrottleService, AuthThrottleService::getTrackedIpCount)
+                    .tag("scope", "ip")
+                    .register(registry);
+            Gauge.builder("auth.throttle.keys", authThrottleService, AuthThrottleService::getTrackedUsernameCount)
+                    .tag("scope", "username")
+                    .register(registry);
+            Gauge.builder("auth.revoked.tokens", tokenRevocationService, TokenRevocationService::getRevokedTokenCount)
+                    .description("Revoked token ids held in memory")
+                    .register(registry);
+            
+            Gauge.builder("avatars.thumbnails.queue", avatarThumbnailService, AvatarThumbnailService::getQueueDepth)
+                    .register(registry);
+            FunctionCounter.builder("avatars.thumbnails", avatarThumbnailService, AvatarThumbnailService::getGeneratedCount)
+                    .tag("result", "generated")
+                    .register(registry);
+            FunctionCounter.builder("avatars.thumbnails", avatarThumbnailService, AvatarThumbnailService::getFailedCount)
+                    .tag("result", "failed")
+                    .register(registry);
+            FunctionCounter.builder("avatars.thumbnails", avatarThumbnailService, AvatarThumbnailService::getRejectedCount)
+                    .tag("result", "rejected")
+                    .register(registry);
+            
+            Gauge.builder("orders.expiry.scheduled", orderExpiryScheduler, OrderExpiryScheduler::getScheduledCount)
+                    .description("Pending orders waiting for their payment deadline")
+                    .register(registry);
+            
+            // Logback creates these outside the context, their counts are static
+            FunctionCounter.builder("logging.events.dropped", CountingAsyncAppender.class,
+                            appender -> CountingAsyncAppender.getDroppedCount())
+                    .tag("reason", "queue-full")
+                    .description("Log events discarded because the async appender queue was full")
+                    .register(registry);
+            FunctionCounter.builder("logging.events.dropped", SamplingTurboFilter.class,
+                            filter -> SamplingTurboFilter.getSampledOutCount())
+                    .tag("reason", "sampled")
+                    .description("Repetitive log events left out by sampling")
+                    .register(registry);
+            
+            BulkheadDataSource bulkhead = unwrapBulkhead(dataSource);
+            if (bulkhead != null) {
+                Gauge.builder("db.bulkhead.active", bulkhead, BulkheadDataSource::getActiveCount)
+                        .description("Connections checked out through the bulkhead")
+                        .register(registry);
+                Gauge.builder("db.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaitingCount)
+                        .description("Callers waiting for a database permit")
+                        .register(registry);
+                FunctionCounter.builder("db.bulkhead.rejected", bulkhead, BulkheadDataSource::getRejectedCount)
+                        .description("Callers that gave up waiting for a database permit")
+                        .register(registry);
+            }
+        };
+    }
+    
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, ToDoubleFunction<T> size,
+                                      ToDoubleFunction<T> hits, ToDoubleFunction<T> misses, ToDoubleFunction<T> evictions) {
+        Gauge.builder("cache.size", cache, size).tag("cache", name).register(registry);
+        FunctionCounter.builder("cache.gets", cache, hits).tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, misses).tag("cache", name).tag("result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, evictions).tag("cache", name).register(registry);
+    }
+    
+    private static BulkheadDataSource unwrapBulkhead(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(BulkheadDataSource.class) ? dataSource.unwrap(BulkheadDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.config;
 
+import com.example.demo.helpers.PaginationHelper;
 import com.example.demo.middleware.JwtAuthInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -23,8 +24,10 @@ public class WebConfig implements WebMvcConfigurer {
                 .excludePathPatterns(
                     "/api/auth/login",
                     "/api/auth/register",
+                    "/api/auth/logout", // Must clear the cookie even for expired or revoked tokens
                     "/api/auth/verify", // Verify endpoint handles auth check internally
-                    "/api/courses/**"
+                    "/api/courses/**",
+                    "/api/avatars/**"
                 );
     }
     
@@ -34,6 +37,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000", "http://127.0.0.1:3000") // Specific origins required when using credentials
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders(PaginationHelper.NEXT_CURSOR_HEADER)
                 .allowCredentials(true)
                 .maxAge(3600);
     }
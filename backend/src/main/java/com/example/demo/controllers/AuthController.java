@@ -1,20 +1,27 @@
 package com.example.demo.controllers;
 
+import com.example.demo.caches.VerifiedTokenCache;
+import com.example.demo.helpers.AuthTokenHelper;
 import com.example.demo.requests.LoginRequest;
 import com.example.demo.requests.RegisterRequest;
 import com.example.demo.responses.ApiResponse;
 import com.example.demo.responses.AuthResponse;
 import com.example.demo.responses.UserResponse;
 import com.example.demo.services.AuthService;
+import com.example.demo.services.AuthThrottleService;
+import com.example.demo.services.TokenRevocationService;
 import com.example.demo.services.UserService;
-import com.example.demo.utils.JwtUtil;
+import com.example.demo.utils.JwtPrincipal;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Optional;
+
 /**
  * REST Controller for Authentication, handles auth-related HTTP requests
  */
@@ -30,7 +37,13 @@ public class AuthController {
     private UserService userService;
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private AuthThrottleService authThrottleService;
     
     /**
      * Register a new user
@@ -39,7 +52,14 @@ public class AuthController {
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<AuthResponse>> register(
             @RequestBody RegisterRequest request,
+            jakarta.servlet.http.HttpServletRequest httpRequest,
             HttpServletResponse httpResponse) {
+        // Throttled before anything touches the database
+        long retryAfter = authThrottleService.acquireRegistration(httpRequest.getRemoteAddr());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+        
         try {
             AuthResponse response = authService.register(
                 request.getName(),
@@ -62,9 +82,6 @@ public class AuthController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Registration failed: " + e.getMessage()));
         }
     }
     
@@ -75,7 +92,14 @@ public class AuthController {
     @PostMapping("/login")
     public ResponseEntity<ApiResponse<AuthResponse>> login(
             @RequestBody LoginRequest request,
+            jakarta.servlet.http.HttpServletRequest httpRequest,
             HttpServletResponse httpResponse) {
+        // Throttled before anything touches the database
+        long retryAfter = authThrottleService.acquireLogin(httpRequest.getRemoteAddr(), request.getUsername());
+        if (retryAfter > 0) {
+            return tooManyAttempts(retryAfter);
+        }
+        
         try {
             AuthResponse response = authService.login(
                 request.getUsername(),
@@ -96,9 +120,6 @@ public class AuthController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Login failed: " + e.getMessage()));
         }
     }
     
@@ -107,18 +128,47 @@ public class AuthController {
      * POST /api/auth/logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Void>> logout(HttpServletResponse httpResponse) {
-        // Clear the token cookie
-        Cookie cookie = new Cookie("token", null);
-        cookie.setHttpOnly(true);
-        cookie.setSecure(false);
-        cookie.setPath("/");
-        cookie.setMaxAge(0); // Delete cookie
-        httpResponse.addCookie(cookie);
+    public ResponseEntity<ApiResponse<Void>> logout(
+            jakarta.servlet.http.HttpServletRequest request,
+            HttpServletResponse httpResponse) {
+        // Not behind JwtAuthInterceptor: an invalid, expired or revoked token still gets its cookie cleared
+        // Revoke a valid token so a copy of it stops working too
+        String token = AuthTokenHelper.resolveToken(request);
+        if (token != null) {
+            verifiedTokenCache.verify(token)
+                    .filter(principal -> !tokenRevocationService.isRevoked(principal))
+                    .ifPresent(principal -> {
+                        tokenRevocationService.revoke(principal);
+                        verifiedTokenCache.invalidate(token);
+                    });
+        }
         
+        clearTokenCookie(httpResponse);
         return ResponseEntity.ok(ApiResponse.success("Logout successful", null));
     }
     
+    /**
+     * Logout user on every device
+     * POST /api/auth/logout-all
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiResponse<Void>> logoutAll(
+            jakarta.servlet.http.HttpServletRequest request,
+            HttpServletResponse httpResponse) {
+        // Set by JwtAuthInterceptor
+        Long userId = (Long) request.getAttribute("userId");
+        if (userId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+        
+        tokenRevocationService.revokeAllForUser(userId);
+        verifiedTokenCache.invalidateUser(userId);
+        
+        clearTokenCookie(httpResponse);
+        return ResponseEntity.ok(ApiResponse.success("Logged out on all devices", null));
+    }
+    
     /**
      * Verify token and get current user
      * GET /api/auth/verify
@@ -128,45 +178,42 @@ public class AuthController {
     public ResponseEntity<ApiResponse<UserResponse>> verify(
             jakarta.servlet.http.HttpServletRequest request) {
         try {
-            // Get token from cookie
-            Cookie[] cookies = request.getCookies();
-            String token = null;
-            
-            if (cookies != null) {
-                for (Cookie cookie : cookies) {
-                    if ("token".equals(cookie.getName())) {
-                        token = cookie.getValue();
-                        break;
-                    }
-                }
-            }
-            
-            // If no token in cookie, try Authorization header as fallback
-            if (token == null) {
-                String authHeader = request.getHeader("Authorization");
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    token = authHeader.substring(7);
-                }
-            }
+            // Get token from cookie, or from the Authorization header as fallback
+            String token = AuthTokenHelper.resolveToken(request);
             
             // If no token or invalid token, return 200 with success=false (not 401)
-            if (token == null || !jwtUtil.validateToken(token)) {
+            Optional<JwtPrincipal> principal = token == null ? Optional.empty() : verifiedTokenCache.verify(token);
+            if (principal.isEmpty() || tokenRevocationService.isRevoked(principal.get())) {
                 return ResponseEntity.ok(ApiResponse.error("Not authenticated"));
             }
             
-            // Token is valid, get user ID and return user data
-            Long userId = jwtUtil.getUserIdFromToken(token);
-            if (userId == null) {
-                return ResponseEntity.ok(ApiResponse.error("Invalid token"));
-            }
-            
-            UserResponse user = userService.getUserById(userId);
+            // Token is valid, return user data
+            UserResponse user = userService.getUserById(principal.get().getUserId());
             return ResponseEntity.ok(ApiResponse.success("Token is valid", user));
         } catch (IllegalArgumentException e) {
             // User not found - return 200 with error message (not 401)
             return ResponseEntity.ok(ApiResponse.error("User not found"));
-        } catch (Exception e) {
-            return ResponseEntity.ok(ApiResponse.error("Failed to verify token: " + e.getMessage()));
         }
     }
+    
+    /**
+     * 429 response telling the client when to try again
+     */
+    private <T> ResponseEntity<ApiResponse<T>> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(ApiResponse.error("Too many attempts, please try again later"));
+    }
+    
+    /**
+     * Delete the token cookie
+     */
+    private void clearTokenCookie(HttpServletResponse httpResponse) {
+        Cookie cookie = new Cookie(AuthTokenHelper.TOKEN_COOKIE, null);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(false);
+        cookie.setPath("/");
+        cookie.setMaxAge(0); // Delete cookie
+        httpResponse.addCookie(cookie);
+    }
 }
@@ -0,0 +1,89 @@
+package com.example.demo.controllers;
+
+import com.example.demo.helpers.HttpHeaderHelper;
+import com.example.demo.services.AvatarStorageService;
+import com.example.demo.services.AvatarThumbnailService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller serving stored avatar images, public
+ */
+@RestController
+@RequestMapping("/api/avatars")
+// CORS is handled globally by WebConfig
+public class AvatarController {
+    
+    // Avatar files are named by their content hash, a given URL never changes
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    
+    // Original served in place of a thumbnail still being generated, clients ask again soon
+    private static final CacheControl PROVISIONAL = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+    
+    @Autowired
+    private AvatarStorageService avatarStorageService;
+    
+    @Autowired
+    private AvatarThumbnailService avatarThumbnailService;
+    
+    /**
+     * Stream an avatar image from disk, or its thumbnail for the requested display size in pixels
+     * GET /api/avatars/{fileName}?size=32
+     */
+    @GetMapping("/{fileName}")
+    public ResponseEntity<Resource> getAvatar(
+            @PathVariable String fileName,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (size != null && size > 0) {
+            Optional<Path> thumbnail = avatarThumbnailService.findThumbnail(fileName, size);
+            if (thumbnail.isPresent()) {
+                String etag = "\"" + AvatarStorageService.hashOf(fileName) + "-" + AvatarThumbnailService.fitSize(size) + "\"";
+                return toResponseEntity(thumbnail.get(), MediaType.IMAGE_JPEG, etag, IMMUTABLE, ifNoneMatch);
+            }
+        }
+        
+        Optional<Path> path = avatarStorageService.resolve(fileName);
+        if (path.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        CacheControl cacheControl = IMMUTABLE;
+        if (size != null && size > 0 && AvatarThumbnailService.fitSize(size) > 0
+                && avatarThumbnailService.canGenerate(fileName)) {
+            // Thumbnail missing, e.g. an avatar migrated before thumbnails existed or a dropped job
+            avatarThumbnailService.generateAsync(fileName);
+            cacheControl = PROVISIONAL;
+        }
+        String etag = "\"" + AvatarStorageService.hashOf(fileName) + "\"";
+        MediaType contentType = MediaType.parseMediaType(AvatarStorageService.contentType(fileName));
+        return toResponseEntity(path.get(), contentType, etag, cacheControl, ifNoneMatch);
+    }
+    
+    private ResponseEntity<Resource> toResponseEntity(Path path, MediaType contentType, String etag,
+                                                      CacheControl cacheControl, String ifNoneMatch) {
+        if (HttpHeaderHelper.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(new FileSystemResource(path));
+    }
+}
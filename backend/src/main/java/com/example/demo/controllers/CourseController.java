@@ -1,5 +1,11 @@
 package com.example.demo.controllers;
 
+import com.example.demo.caches.CoursePage;
+import com.example.demo.caches.CourseResponseCache;
+import com.example.demo.caches.RenderedResponse;
+import com.example.demo.helpers.HttpHeaderHelper;
+import com.example.demo.helpers.PageCursor;
+import com.example.demo.helpers.PaginationHelper;
 import com.example.demo.models.Course;
 import com.example.demo.requests.CreateCourseRequest;
 import com.example.demo.requests.UpdateCourseRequest;
@@ -8,13 +14,13 @@ import com.example.demo.responses.CourseResponse;
 import com.example.demo.services.CourseService;
 import com.example.demo.utils.CourseMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
 /**
  * REST Controller for Course, handles course-related HTTP requests
  */
@@ -23,20 +29,47 @@ import java.util.stream.Collectors;
 // CORS is handled globally by WebConfig
 public class CourseController {
     
+    private static final String VIEW_SUMMARY = "summary";
+    
     @Autowired
     private CourseService courseService;
     
+    @Autowired
+    private CourseResponseCache courseResponseCache;
+    
     /**
      * Get all courses
      * GET /api/courses
+     * GET /api/courses?view=summary returns summaries without chapters and videos
+     * GET /api/courses?limit=&cursor= returns one page ordered by id, the next cursor is sent in X-Next-Cursor
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<CourseResponse>>> getAllCourses() {
-        List<Course> courses = courseService.getAllCourses();
-        List<CourseResponse> responses = courses.stream()
-                .map(CourseMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("Successfully retrieved course list", responses));
+    public ResponseEntity<byte[]> getAllCourses(
+            @RequestParam(value = "view", required = false) String view,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (cursor != null || limit != null) {
+            Long afterId;
+            try {
+                afterId = cursor == null ? null : PageCursor.decode(cursor).getId();
+            } catch (IllegalArgumentException e) {
+                return toResponseEntity(HttpStatus.BAD_REQUEST, courseResponseCache.getInvalidCursor(), acceptEncoding, null);
+            }
+            CoursePage page = courseResponseCache.getCoursePage(VIEW_SUMMARY.equalsIgnoreCase(view),
+                    afterId, PaginationHelper.resolveLimit(limit));
+            // Revalidation is answered before the page is serialized
+            if (HttpHeaderHelper.matchesIfNoneMatch(ifNoneMatch, page.getEtag())) {
+                return notModified(page.getEtag(), page.getNextCursor());
+            }
+            return toResponseEntity(HttpStatus.OK, page.render(), acceptEncoding, null, page.getNextCursor());
+        }
+        
+        RenderedResponse courses = VIEW_SUMMARY.equalsIgnoreCase(view)
+                ? courseResponseCache.getCourseSummaries()
+                : courseResponseCache.getCourseList();
+        return toResponseEntity(HttpStatus.OK, courses, acceptEncoding, ifNoneMatch);
     }
     
     /**
@@ -44,12 +77,10 @@ public class CourseController {
      * GET /api/courses/featured
      */
     @GetMapping("/featured")
-    public ResponseEntity<ApiResponse<List<CourseResponse>>> getFeaturedCourses() {
-        List<Course> courses = courseService.getFeaturedCourses();
-        List<CourseResponse> responses = courses.stream()
-                .map(CourseMapper::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("Successfully retrieved featured courses", responses));
+    public ResponseEntity<byte[]> getFeaturedCourses(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return toResponseEntity(HttpStatus.OK, courseResponseCache.getFeaturedCourses(), acceptEncoding, ifNoneMatch);
     }
     
     /**
@@ -57,11 +88,15 @@ public class CourseController {
      * GET /api/courses/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<CourseResponse>> getCourseById(@PathVariable Long id) {
-        return courseService.getCourseById(id)
-                .map(course -> ResponseEntity.ok(ApiResponse.success("Successfully retrieved course", CourseMapper.toResponse(course))))
-                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
-                        .body(ApiResponse.error("Course not found")));
+    public ResponseEntity<byte[]> getCourseById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        RenderedResponse course = courseResponseCache.getCourse(id);
+        if (course == null) {
+            return toResponseEntity(HttpStatus.NOT_FOUND, courseResponseCache.getCourseNotFound(), acceptEncoding, null);
+        }
+        return toResponseEntity(HttpStatus.OK, course, acceptEncoding, ifNoneMatch);
     }
     
     /**
@@ -100,4 +135,51 @@ public class CourseController {
         courseService.deleteCourse(id);
         return ResponseEntity.ok(ApiResponse.success("Course deleted successfully", null));
     }
+    
+    /**
+     * Write a pre-rendered JSON body, gzipped when the client accepts it.
+     * Successful responses carry an ETag and become 304 Not Modified when If-None-Match still matches.
+     */
+    private ResponseEntity<byte[]> toResponseEntity(HttpStatus status, RenderedResponse rendered,
+                                                    String acceptEncoding, String ifNoneMatch) {
+        return toResponseEntity(status, rendered, acceptEncoding, ifNoneMatch, null);
+    }
+    
+    private ResponseEntity<byte[]> toResponseEntity(HttpStatus status, RenderedResponse rendered,
+                                                    String acceptEncoding, String ifNoneMatch, String nextCursor) {
+        boolean gzip = rendered.hasGzipBody() && HttpHeaderHelper.acceptsGzip(acceptEncoding);
+        String etag = gzip ? rendered.getGzipEtag() : rendered.getEtag();
+        
+        if (status == HttpStatus.OK && HttpHeaderHelper.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return notModified(etag, nextCursor);
+        }
+        
+        byte[] body = gzip ? rendered.getGzipBody() : rendered.getBody();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (status == HttpStatus.OK) {
+            // no-cache: clients may store the body but must revalidate it with If-None-Match
+            builder.eTag(etag).cacheControl(CacheControl.noCache());
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (nextCursor != null) {
+            builder.header(PaginationHelper.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(body);
+    }
+    
+    private ResponseEntity<byte[]> notModified(String etag, String nextCursor) {
+        ResponseEntity.HeadersBuilder<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (nextCursor != null) {
+            notModified.header(PaginationHelper.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return notModified.build();
+    }
 }
@@ -1,15 +1,21 @@
 package com.example.demo.controllers;
 
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.helpers.CursorPage;
+import com.example.demo.helpers.PaginationHelper;
 import com.example.demo.models.Order;
+import com.example.demo.projections.OrderView;
 import com.example.demo.requests.CreateOrderRequest;
 import com.example.demo.responses.ApiResponse;
 import com.example.demo.responses.OrderResponse;
 import com.example.demo.services.OrderService;
+import com.example.demo.utils.OrderMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,10 +38,10 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderResponse>> createOrder(@RequestBody CreateOrderRequest request) {
         try {
             Order order = orderService.createOrder(request.getUserId(), request.getCourseId());
-            OrderResponse response = toResponse(order);
+            OrderResponse response = OrderMapper.toResponse(order, LocalDateTime.now());
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success("Order created successfully", response));
-        } catch (Exception e) {
+        } catch (ResourceNotFoundException | IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
         }
@@ -49,9 +55,7 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderResponse>> getOrderByOrderNumber(@PathVariable String orderNumber) {
         return orderService.getOrderByOrderNumber(orderNumber)
                 .map(order -> {
-                    // Check and cancel if expired
-                    orderService.cancelExpiredOrder(order);
-                    OrderResponse response = toResponse(order);
+                    OrderResponse response = OrderMapper.toResponse(order, LocalDateTime.now());
                     return ResponseEntity.ok(ApiResponse.success("Order retrieved successfully", response));
                 })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -66,9 +70,7 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderResponse>> getOrderById(@PathVariable Long id) {
         return orderService.getOrderById(id)
                 .map(order -> {
-                    // Check and cancel if expired
-                    orderService.cancelExpiredOrder(order);
-                    OrderResponse response = toResponse(order);
+                    OrderResponse response = OrderMapper.toResponse(order, LocalDateTime.now());
                     return ResponseEntity.ok(ApiResponse.success("Order retrieved successfully", response));
                 })
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -77,32 +79,48 @@ public class OrderController {
     
     /**
      * Get all orders by user ID
-     * GET /api/orders/user/{userId}
+     * GET /api/orders/user/{userId} returns every order, newest first
+     * GET /api/orders/user/{userId}?limit=&cursor= returns one page, the cursor of the next page is sent in the X-Next-Cursor header
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersByUserId(@PathVariable Long userId) {
-        List<Order> orders = orderService.getOrdersByUserId(userId);
-        // Check and cancel expired orders
-        orders.forEach(order -> orderService.cancelExpiredOrder(order));
-        List<OrderResponse> responses = orders.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", responses));
+    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersByUserId(
+            @PathVariable Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return toListResponse(orderService.getAllOrdersByUserId(userId));
+        }
+        CursorPage<List<OrderView>> page;
+        try {
+            page = orderService.getOrdersByUserId(userId, cursor, PaginationHelper.resolveLimit(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+        return toPageResponse(page);
     }
     
     /**
      * Get all orders by course ID
-     * GET /api/orders/course/{courseId}
+     * GET /api/orders/course/{courseId} returns every order, newest first
+     * GET /api/orders/course/{courseId}?limit=&cursor= returns one page, the cursor of the next page is sent in the X-Next-Cursor header
      */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersByCourseId(@PathVariable Long courseId) {
-        List<Order> orders = orderService.getOrdersByCourseId(courseId);
-        // Check and cancel expired orders
-        orders.forEach(order -> orderService.cancelExpiredOrder(order));
-        List<OrderResponse> responses = orders.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", responses));
+    public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersByCourseId(
+            @PathVariable Long courseId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return toListResponse(orderService.getAllOrdersByCourseId(courseId));
+        }
+        CursorPage<List<OrderView>> page;
+        try {
+            page = orderService.getOrdersByCourseId(courseId, cursor, PaginationHelper.resolveLimit(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+        return toPageResponse(page);
     }
     
     /**
@@ -113,13 +131,7 @@ public class OrderController {
     public ResponseEntity<ApiResponse<List<OrderResponse>>> getOrdersByUserIdAndCourseId(
             @PathVariable Long userId,
             @PathVariable Long courseId) {
-        List<Order> orders = orderService.getOrdersByUserIdAndCourseId(userId, courseId);
-        // Check and cancel expired orders
-        orders.forEach(order -> orderService.cancelExpiredOrder(order));
-        List<OrderResponse> responses = orders.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", responses));
+        return toListResponse(orderService.getOrdersByUserIdAndCourseId(userId, courseId));
     }
     
     /**
@@ -129,32 +141,31 @@ public class OrderController {
     @PostMapping("/{orderNumber}/complete-payment")
     public ResponseEntity<ApiResponse<OrderResponse>> completePayment(@PathVariable String orderNumber) {
         try {
-            Order order = orderService.completePayment(orderNumber);
-            OrderResponse response = toResponse(order);
+            OrderView order = orderService.completePayment(orderNumber);
+            OrderResponse response = OrderMapper.toResponse(order, LocalDateTime.now());
             return ResponseEntity.ok(ApiResponse.success("Payment completed successfully", response));
-        } catch (Exception e) {
+        } catch (ResourceNotFoundException | IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
         }
     }
     
-    /**
-     * Convert Order entity to OrderResponse DTO
-     */
-    private OrderResponse toResponse(Order order) {
-        return new OrderResponse(
-                order.getId(),
-                order.getOrderNumber(),
-                order.getUser().getId(),
-                order.getUser().getName(),
-                order.getCourse().getId(),
-                order.getCourse().getTitle(),
-                order.getStatus(),
-                order.getPaymentDeadline(),
-                order.getPaymentDate(),
-                order.getRemarks(),
-                order.getCreatedAt()
-        );
+    private ResponseEntity<ApiResponse<List<OrderResponse>>> toListResponse(List<OrderView> orders) {
+        return ResponseEntity.ok(ApiResponse.success("Orders retrieved successfully", toResponses(orders)));
+    }
+    
+    private ResponseEntity<ApiResponse<List<OrderResponse>>> toPageResponse(CursorPage<List<OrderView>> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.hasNext()) {
+            builder.header(PaginationHelper.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(ApiResponse.success("Orders retrieved successfully", toResponses(page.getContent())));
+    }
+    
+    private static List<OrderResponse> toResponses(List<OrderView> orders) {
+        LocalDateTime now = LocalDateTime.now();
+        return orders.stream()
+                .map(order -> OrderMapper.toResponse(order, now))
+                .collect(Collectors.toList());
     }
 }
-
@@ -8,6 +8,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * REST Controller for User operations
@@ -32,9 +36,6 @@ public class UserController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to retrieve user: " + e.getMessage()));
         }
     }
     
@@ -60,11 +61,42 @@ public class UserController {
             );
             return ResponseEntity.ok(ApiResponse.success("User updated successfully", response));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+            // Also thrown for an avatar value that is neither an image nor an image URL
+            HttpStatus status = "User not found".equals(e.getMessage()) ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status)
                     .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
+        } catch (UncheckedIOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to update user: " + e.getMessage()));
         }
     }
+    
+    /**
+     * Upload a new avatar image
+     * POST /api/users/{id}/avatar (multipart, field "file")
+     */
+    @PostMapping("/{id}/avatar")
+    public ResponseEntity<ApiResponse<UserResponse>> uploadAvatar(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file,
+            jakarta.servlet.http.HttpServletRequest request) {
+        // Set by JwtAuthInterceptor, users may only change their own avatar
+        Long userId = (Long) request.getAttribute("userId");
+        if (!id.equals(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Cannot change another user's avatar"));
+        }
+        
+        try {
+            UserResponse response = userService.updateAvatar(id, file.getBytes());
+            return ResponseEntity.ok(ApiResponse.success("Avatar updated successfully", response));
+        } catch (IllegalArgumentException e) {
+            HttpStatus status = "User not found".equals(e.getMessage()) ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IOException | UncheckedIOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to upload avatar: " + e.getMessage()));
+        }
+    }
 }
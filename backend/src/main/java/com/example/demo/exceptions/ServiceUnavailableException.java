@@ -0,0 +1,15 @@
+package com.example.demo.exceptions;
+
+/**
+ * Service unavailable exception, thrown when a bounded resource is saturated and the request is shed
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+    
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.helpers;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Auth token helper class
+ */
+public class AuthTokenHelper {
+
+    public static final String TOKEN_COOKIE = "token";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Get the JWT token of a request, from the token cookie or else the Authorization header
+     * @return the token, null if the request carries none
+     */
+    public static String resolveToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (TOKEN_COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
+            return authHeader.substring(BEARER_PREFIX.length());
+        }
+        return null;
+    }
+
+    private AuthTokenHelper() {
+        // Prevent instantiation
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.helpers;
+
+/**
+ * One page of a keyset-paginated listing
+ */
+public final class CursorPage<T> {
+
+    private final T content;
+    private final String nextCursor;
+
+    public CursorPage(T content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public T getContent() {
+        return content;
+    }
+
+    /**
+     * Cursor of the next page, null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
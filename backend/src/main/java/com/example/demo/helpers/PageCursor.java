@@ -0,0 +1,77 @@
+package com.example.demo.helpers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor: the sort key of the last row on a page.
+ * Sent to clients as an opaque URL-safe token.
+ */
+public final class PageCursor {
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    private PageCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    /**
+     * Cursor for listings ordered by (created_at, id)
+     */
+    public static PageCursor of(LocalDateTime createdAt, Long id) {
+        return new PageCursor(createdAt, id);
+    }
+
+    /**
+     * Cursor for listings ordered by id only
+     */
+    public static PageCursor ofId(Long id) {
+        return new PageCursor(null, id);
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            String key = raw.substring(0, separator);
+            Long id = Long.parseLong(raw.substring(separator + 1));
+            if ("-".equals(key)) {
+                return ofId(id);
+            }
+            int dot = key.indexOf('.');
+            LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+                    Long.parseLong(key.substring(0, dot)), Integer.parseInt(key.substring(dot + 1)), ZoneOffset.UTC);
+            return of(createdAt, id);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String key = createdAt == null
+                ? "-"
+                : createdAt.toEpochSecond(ZoneOffset.UTC) + "." + createdAt.getNano();
+        String raw = key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creation time of the last row, null for id-only cursors
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
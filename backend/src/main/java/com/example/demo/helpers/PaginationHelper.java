@@ -0,0 +1,30 @@
+package com.example.demo.helpers;
+
+import com.example.demo.definitions.ApiConstants;
+
+/**
+ * Pagination helper class
+ */
+public class PaginationHelper {
+
+    /**
+     * Response header carrying the cursor of the next page
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Resolve a requested page size, capped at MAX_PAGE_SIZE.
+     * The same rule for every listing: a cursor without a limit continues with the largest page,
+     * since listings without cursor and limit return everything and clients following X-Next-Cursor expect the same.
+     */
+    public static int resolveLimit(Integer requested) {
+        if (requested == null) {
+            return ApiConstants.MAX_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(requested, ApiConstants.MAX_PAGE_SIZE));
+    }
+
+    private PaginationHelper() {
+        // Prevent instantiation
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.helpers;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Transaction helper class
+ */
+public class TransactionHelper {
+
+    /**
+     * Run the action once the current transaction has committed.
+     * Runs immediately when no transaction is active.
+     * The committing transaction still holds its connection at that point, so the action must not use the database;
+     * use {@link #runAfterCommit(Runnable, Executor)} for that.
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run the action on the executor once the current transaction has committed, for actions that use the database.
+     * Run on the committing thread, a transaction of its own would hold a second connection next to the one
+     * not yet released, and concurrent writers could exhaust the pool waiting on each other.
+     * Runs immediately on the calling thread when no transaction is active.
+     */
+    public static void runAfterCommit(Runnable action, Executor executor) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        runAfterCommit(() -> executor.execute(action));
+    }
+
+    private TransactionHelper() {
+        // Prevent instantiation
+    }
+}
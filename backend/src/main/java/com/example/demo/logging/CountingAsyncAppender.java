@@ -0,0 +1,50 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Non-blocking AsyncAppender that counts the events it drops.
+ * Events are discarded rather than waited for when the queue is full, and INFO and below are
+ * discarded once the queue passes the discarding threshold, so logging never stalls a request thread.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+    private static final LongAdder DROPPED = new LongAdder();
+
+    // Producers take turns, so the queue can only drain between the capacity check and the base class's offer.
+    // The queue already serializes offers on its own lock, so this adds little contention.
+    private final ReentrantLock offerLock = new ReentrantLock();
+
+    public CountingAsyncAppender() {
+        setNeverBlock(true);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Formatting and MDC capture happen outside the lock; the base class's second call reuses the results
+        preprocess(event);
+        offerLock.lock();
+        try {
+            int remaining = getRemainingCapacity();
+            // Same decisions as the base class, which cannot drop anything that passes them while the lock is held
+            if (remaining == 0 || (remaining < getDiscardingThreshold() && isDiscardable(event))) {
+                DROPPED.increment();
+                return;
+            }
+            super.append(event);
+        } finally {
+            offerLock.unlock();
+        }
+    }
+
+    /**
+     * Events dropped because the queue was full or past its discarding threshold, since startup
+     */
+    public static long getDroppedCount() {
+        return DROPPED.sum();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples repetitive log messages: each message format passes {@code burst} times per window,
+ * after that only one in {@code sampleRate}. WARN and ERROR always pass.
+ * Runs before an event is created, so sampled-out messages cost no formatting or queueing.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private static final LongAdder SAMPLED_OUT = new LongAdder();
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    private int burst = 20;
+    private long windowMillis = 10000;
+    private int sampleRate = 100;
+    private int maxMessages = 1000;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isXxxEnabled() checks come without a format, and disabled levels are rejected later anyway
+        if (format == null || level == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Window window = windows.get(format);
+        if (window == null) {
+            if (windows.size() >= maxMessages) {
+                // Too many distinct messages to track, let the rest through unsampled
+                return FilterReply.NEUTRAL;
+            }
+            window = windows.computeIfAbsent(format, key -> new Window());
+        }
+
+        long count = window.increment(System.currentTimeMillis(), windowMillis);
+        if (count <= burst || (count - burst) % sampleRate == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        SAMPLED_OUT.increment();
+        return FilterReply.DENY;
+    }
+
+    /**
+     * Events dropped by sampling since startup
+     */
+    public static long getSampledOutCount() {
+        return SAMPLED_OUT.sum();
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public void setMaxMessages(int maxMessages) {
+        this.maxMessages = maxMessages;
+    }
+
+    private static final class Window {
+        private volatile long startMillis;
+        private final AtomicLong count = new AtomicLong();
+
+        private long increment(long nowMillis, long windowMillis) {
+            long start = startMillis;
+            if (nowMillis - start >= windowMillis) {
+                synchronized (this) {
+                    if (startMillis == start) {
+                        startMillis = nowMillis;
+                        count.set(0);
+                    }
+                }
+            }
+            return count.incrementAndGet();
+        }
+    }
+}
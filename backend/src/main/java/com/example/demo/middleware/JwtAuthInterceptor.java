@@ -1,13 +1,17 @@
 package com.example.demo.middleware;
 
-import com.example.demo.utils.JwtUtil;
-import jakarta.servlet.http.Cookie;
+import com.example.demo.caches.VerifiedTokenCache;
+import com.example.demo.helpers.AuthTokenHelper;
+import com.example.demo.services.TokenRevocationService;
+import com.example.demo.utils.JwtPrincipal;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.util.Optional;
+
 /**
  * Interceptor to validate JWT token from cookie
  */
@@ -15,7 +19,10 @@ import org.springframework.web.servlet.HandlerInterceptor;
 public class JwtAuthInterceptor implements HandlerInterceptor {
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
     
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -28,33 +35,17 @@ public class JwtAuthInterceptor implements HandlerInterceptor {
         String path = request.getRequestURI();
         if (path.startsWith("/api/auth/login") || 
             path.startsWith("/api/auth/register") ||
+            path.startsWith("/api/avatars/") ||
             path.startsWith("/api/courses") && !path.contains("/orders")) {
             return true;
         }
         
-        // Get token from cookie
-        Cookie[] cookies = request.getCookies();
-        String token = null;
-        
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if ("token".equals(cookie.getName())) {
-                    token = cookie.getValue();
-                    break;
-                }
-            }
-        }
-        
-        // If no token in cookie, try Authorization header as fallback
-        if (token == null) {
-            String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-            }
-        }
+        // Get token from cookie, or from the Authorization header as fallback
+        String token = AuthTokenHelper.resolveToken(request);
         
-        // Validate token
-        if (token == null || !jwtUtil.validateToken(token)) {
+        // Verify token, recently verified tokens are served from the cache
+        Optional<JwtPrincipal> principal = token == null ? Optional.empty() : verifiedTokenCache.verify(token);
+        if (principal.isEmpty() || tokenRevocationService.isRevoked(principal.get())) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json");
             response.getWriter().write("{\"success\":false,\"message\":\"Unauthorized: Invalid or missing token\"}");
@@ -62,10 +53,7 @@ public class JwtAuthInterceptor implements HandlerInterceptor {
         }
         
         // Store user ID in request attribute for use in controllers
-        Long userId = jwtUtil.getUserIdFromToken(token);
-        if (userId != null) {
-            request.setAttribute("userId", userId);
-        }
+        request.setAttribute("userId", principal.get().getUserId());
         
         return true;
     }
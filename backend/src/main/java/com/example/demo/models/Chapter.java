@@ -27,7 +27,8 @@ public class Chapter {
     
     private Integer orderIndex; // Order of chapter in the course
     
-    @OneToMany(mappedBy = "chapter", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Lazy by default, catalog reads fetch videos explicitly (see ChapterRepository.findAllWithVideos)
+    @OneToMany(mappedBy = "chapter", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Video> videos = new ArrayList<>();
     
     // Default constructor
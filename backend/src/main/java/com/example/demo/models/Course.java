@@ -33,7 +33,8 @@ public class Course {
     
     private Boolean isFeatured;
     
-    @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Lazy by default, catalog reads fetch the tree explicitly (see CourseRepository.findAllWithChapters)
+    @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Chapter> chapters = new ArrayList<>();
     
     // Default constructor
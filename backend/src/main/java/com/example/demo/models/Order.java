@@ -7,9 +7,20 @@ import java.time.LocalDateTime;
  * Order entity class, maps to the orders table in the database
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // Back the keyset pagination of the order listings
+    @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_orders_course_created", columnList = "course_id, created_at, id"),
+    // Backs the expiry sweep over pending orders
+    @Index(name = "idx_orders_status_deadline", columnList = "status, payment_deadline")
+})
 public class Order {
     
+    /**
+     * Remarks recorded on orders cancelled for missing their payment deadline
+     */
+    public static final String EXPIRED_REMARKS = "期限內未完成付款";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -17,11 +28,12 @@ public class Order {
     @Column(nullable = false, unique = true, length = 18)
     private String orderNumber;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: order pages read the user name and course title through OrderView projections
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
     
@@ -57,6 +69,21 @@ public class Order {
         this.paymentDeadline = paymentDeadline;
     }
     
+    /**
+     * Whether the order is still pending but its payment deadline has passed.
+     * Such orders read as cancelled before the expiry sweep persists the transition.
+     */
+    public boolean isExpiredAt(LocalDateTime now) {
+        return isExpired(status, paymentDeadline, now);
+    }
+    
+    /**
+     * Same check for order columns read without the entity
+     */
+    public static boolean isExpired(String status, LocalDateTime paymentDeadline, LocalDateTime now) {
+        return "PENDING".equals(status) && paymentDeadline != null && now.isAfter(paymentDeadline);
+    }
+    
     // Getter and Setter methods
     public Long getId() {
         return id;
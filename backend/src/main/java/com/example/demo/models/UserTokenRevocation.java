@@ -0,0 +1,46 @@
+package com.example.demo.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * UserTokenRevocation entity class, maps to the user_token_revocations table in the database
+ * Every token of the user issued before revokedBefore is revoked
+ */
+@Entity
+@Table(name = "user_token_revocations")
+public class UserTokenRevocation {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "revoked_before", nullable = false)
+    private LocalDateTime revokedBefore;
+    
+    // Default constructor
+    public UserTokenRevocation() {}
+    
+    // Constructor
+    public UserTokenRevocation(Long userId, LocalDateTime revokedBefore) {
+        this.userId = userId;
+        this.revokedBefore = revokedBefore;
+    }
+    
+    // Getter and Setter methods
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public LocalDateTime getRevokedBefore() {
+        return revokedBefore;
+    }
+    
+    public void setRevokedBefore(LocalDateTime revokedBefore) {
+        this.revokedBefore = revokedBefore;
+    }
+}
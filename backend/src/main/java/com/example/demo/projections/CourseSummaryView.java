@@ -0,0 +1,28 @@
+package com.example.demo.projections;
+
+/**
+ * Projection of a course for list pages: display columns plus curriculum counts computed in SQL
+ */
+public interface CourseSummaryView {
+    
+    Long getId();
+    
+    String getTitle();
+    
+    String getSubtitle();
+    
+    String getImageUrl();
+    
+    String getPriceText();
+    
+    Boolean getIsFeatured();
+    
+    Long getChapterCount();
+    
+    Long getVideoCount();
+    
+    /**
+     * Total duration of all videos in seconds
+     */
+    Long getTotalDuration();
+}
@@ -0,0 +1,31 @@
+package com.example.demo.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of an order for order pages: order columns plus the user name and course title they display
+ */
+public interface OrderView {
+    
+    Long getId();
+    
+    String getOrderNumber();
+    
+    Long getUserId();
+    
+    String getUserName();
+    
+    Long getCourseId();
+    
+    String getCourseTitle();
+    
+    String getStatus();
+    
+    LocalDateTime getPaymentDeadline();
+    
+    LocalDateTime getPaymentDate();
+    
+    String getRemarks();
+    
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,13 @@
+package com.example.demo.projections;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a pending order for expiry scheduling: its id and payment deadline only
+ */
+public interface PendingOrderDeadline {
+    
+    Long getId();
+    
+    LocalDateTime getPaymentDeadline();
+}
@@ -2,8 +2,29 @@ package com.example.demo.repositories;
 
 import com.example.demo.models.Chapter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
+/**
+ * Repository interface for Chapter, provides database operations
+ */
 @Repository
 public interface ChapterRepository extends JpaRepository<Chapter, Long> {
+    
+    /**
+     * Find all chapters with their videos loaded in the same query
+     * When run in the same persistence context as CourseRepository.findAllWithChapters,
+     * this fills in the videos of the chapters already loaded there
+     */
+    @Query("SELECT DISTINCT ch FROM Chapter ch LEFT JOIN FETCH ch.videos")
+    List<Chapter> findAllWithVideos();
+    
+    /**
+     * Find the chapters of one course with their videos loaded in the same query
+     */
+    @Query("SELECT DISTINCT ch FROM Chapter ch LEFT JOIN FETCH ch.videos WHERE ch.course.id = :courseId")
+    List<Chapter> findByCourseIdWithVideos(@Param("courseId") Long courseId);
 }
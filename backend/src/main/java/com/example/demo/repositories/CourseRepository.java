@@ -1,9 +1,10 @@
 package com.example.demo.repositories;
 
 import com.example.demo.models.Course;
-import org.springframework.data.jpa.repository.EntityGraph;
+import com.example.demo.projections.CourseSummaryView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,23 +21,29 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findByIsFeaturedTrue();
     
     /**
-     * Find course by ID with chapters and videos loaded
+     * Find course by ID with its chapters loaded in the same query
+     * Videos are fetched separately (see ChapterRepository), Hibernate cannot join fetch two bags at once
      */
-    @EntityGraph(attributePaths = {"chapters", "chapters.videos"})
-    @Query("SELECT c FROM Course c WHERE c.id = :id")
-    Optional<Course> findByIdWithChaptersAndVideos(Long id);
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.chapters WHERE c.id = :id")
+    Optional<Course> findByIdWithChapters(@Param("id") Long id);
     
     /**
-     * Find all courses with chapters and videos loaded
+     * Find all courses with their chapters loaded in the same query
+     * Videos are fetched separately (see ChapterRepository), Hibernate cannot join fetch two bags at once
      */
-    @EntityGraph(attributePaths = {"chapters", "chapters.videos"})
-    @Query("SELECT c FROM Course c")
-    List<Course> findAllWithChaptersAndVideos();
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.chapters ORDER BY c.id")
+    List<Course> findAllWithChapters();
     
     /**
-     * Find featured courses with chapters and videos loaded
+     * List all courses as summaries: display columns only, with chapter count,
+     * video count and total video duration aggregated in SQL
      */
-    @EntityGraph(attributePaths = {"chapters", "chapters.videos"})
-    @Query("SELECT c FROM Course c WHERE c.isFeatured = true")
-    List<Course> findFeaturedCoursesWithChaptersAndVideos();
+    @Query("SELECT c.id AS id, c.title AS title, c.subtitle AS subtitle, c.imageUrl AS imageUrl, " +
+           "c.priceText AS priceText, c.isFeatured AS isFeatured, " +
+           "COUNT(DISTINCT ch.id) AS chapterCount, COUNT(v.id) AS videoCount, " +
+           "COALESCE(SUM(v.duration), 0) AS totalDuration " +
+           "FROM Course c LEFT JOIN c.chapters ch LEFT JOIN ch.videos v " +
+           "GROUP BY c.id, c.title, c.subtitle, c.imageUrl, c.priceText, c.isFeatured " +
+           "ORDER BY c.id")
+    List<CourseSummaryView> findAllSummaries();
 }
@@ -1,11 +1,17 @@
 package com.example.demo.repositories;
 
 import com.example.demo.models.Order;
+import com.example.demo.projections.OrderView;
+import com.example.demo.projections.PendingOrderDeadline;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,31 +21,129 @@ import java.util.Optional;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
+    /**
+     * Columns of OrderView, only the user name and course title are read from the joined rows
+     */
+    String ORDER_VIEW_SELECT = "SELECT o.id AS id, o.orderNumber AS orderNumber, u.id AS userId, u.name AS userName, " +
+           "c.id AS courseId, c.title AS courseTitle, o.status AS status, o.paymentDeadline AS paymentDeadline, " +
+           "o.paymentDate AS paymentDate, o.remarks AS remarks, o.createdAt AS createdAt " +
+           "FROM Order o JOIN o.user u JOIN o.course c ";
+    
     /**
      * Find order by order number
      */
     Optional<Order> findByOrderNumber(String orderNumber);
     
     /**
-     * Find all orders by user ID
+     * Find the highest order number issued so far, served from the unique order number index
+     */
+    @Query("SELECT MAX(o.orderNumber) FROM Order o")
+    Optional<String> findMaxOrderNumber();
+    
+    /**
+     * Find the view of an order by order number
      */
-    List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
+    @Query(ORDER_VIEW_SELECT + "WHERE o.orderNumber = :orderNumber")
+    Optional<OrderView> findViewByOrderNumber(@Param("orderNumber") String orderNumber);
     
     /**
-     * Find all orders by course ID
+     * Find the view of an order by ID
      */
-    List<Order> findByCourseIdOrderByCreatedAtDesc(Long courseId);
+    @Query(ORDER_VIEW_SELECT + "WHERE o.id = :id")
+    Optional<OrderView> findViewById(@Param("id") Long id);
+    
+    /**
+     * Find all orders of a user, newest first
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.user.id = :userId ORDER BY o.createdAt DESC NULLS FIRST, o.id DESC")
+    List<OrderView> findAllViewsByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Find the first page of a user's orders, newest first.
+     * Orders without a creation time come first, the order a backward scan of the (user_id, created_at, id) index yields.
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.user.id = :userId ORDER BY o.createdAt DESC NULLS FIRST, o.id DESC")
+    List<OrderView> findPageByUserId(@Param("userId") Long userId, Limit limit);
+    
+    /**
+     * Find the page of a user's orders that follows the (createdAt, id) keyset of the previous page
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.user.id = :userId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderView> findPageByUserIdAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Limit limit);
+    
+    /**
+     * Find the page of a user's orders that follows a previous page ending on an order without a creation time
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.user.id = :userId " +
+           "AND ((o.createdAt IS NULL AND o.id < :id) OR o.createdAt IS NOT NULL) " +
+           "ORDER BY o.createdAt DESC NULLS FIRST, o.id DESC")
+    List<OrderView> findPageByUserIdAfterUndated(@Param("userId") Long userId, @Param("id") Long id, Limit limit);
+    
+    /**
+     * Find all orders of a course, newest first
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.course.id = :courseId ORDER BY o.createdAt DESC NULLS FIRST, o.id DESC")
+    List<OrderView> findAllViewsByCourseId(@Param("courseId") Long courseId);
+    
+    /**
+     * Find the first page of a course's orders, newest first, orders without a creation time first
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.course.id = :courseId ORDER BY o.createdAt DESC NULLS FIRST, o.id DESC")
+    List<OrderView> findPageByCourseId(@Param("courseId") Long courseId, Limit limit);
+    
+    /**
+     * Find the page of a course's orders that follows the (createdAt, id) keyset of the previous page
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.course.id = :courseId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderView> findPageByCourseIdAfter(@Param("courseId") Long courseId, @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id, Limit limit);
+    
+    /**
+     * Find the page of a course's orders that follows a previous page ending on an order without a creation time
+     */
+    @Query(ORDER_VIEW_SELECT + "WHERE o.course.id = :courseId " +
+           "AND ((o.createdAt IS NULL AND o.id < :id) OR o.createdAt IS NOT NULL) " +
+           "ORDER BY o.createdAt DESC NULLS FIRST, o.id DESC")
+    List<OrderView> findPageByCourseIdAfterUndated(@Param("courseId") Long courseId, @Param("id") Long id, Limit limit);
     
     /**
      * Find all orders by user ID and course ID
      */
-    @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.course.id = :courseId ORDER BY o.createdAt DESC")
-    List<Order> findByUserIdAndCourseIdOrderByCreatedAtDesc(@Param("userId") Long userId, @Param("courseId") Long courseId);
+    @Query(ORDER_VIEW_SELECT + "WHERE o.user.id = :userId AND o.course.id = :courseId ORDER BY o.createdAt DESC")
+    List<OrderView> findByUserIdAndCourseIdOrderByCreatedAtDesc(@Param("userId") Long userId, @Param("courseId") Long courseId);
+    
+    /**
+     * Cancel up to {@code limit} pending orders whose payment deadline is before {@code now}.
+     * Rows locked by a concurrent payment are skipped rather than waited for and are picked up by a later run.
+     * @return number of orders cancelled
+     */
+    @Modifying
+    @Query(value = "UPDATE orders SET status = 'CANCELLED', remarks = :remarks " +
+                   "WHERE status = 'PENDING' AND id IN (" +
+                   "SELECT id FROM orders WHERE status = 'PENDING' AND payment_deadline < :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int cancelExpiredPendingOrders(@Param("now") LocalDateTime now, @Param("remarks") String remarks,
+                                   @Param("limit") int limit);
     
     /**
-     * Find all pending orders that have passed their payment deadline
+     * Find the id and payment deadline of every pending order
      */
-    @Query("SELECT o FROM Order o WHERE o.status = 'PENDING' AND o.paymentDeadline < CURRENT_TIMESTAMP")
-    List<Order> findExpiredPendingOrders();
+    @Query("SELECT o.id AS id, o.paymentDeadline AS paymentDeadline FROM Order o WHERE o.status = 'PENDING'")
+    List<PendingOrderDeadline> findPendingDeadlines();
+    
+    /**
+     * Cancel the given orders if they are still pending and their payment deadline is before {@code now}
+     * @return number of orders cancelled
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.status = 'CANCELLED', o.remarks = :remarks " +
+           "WHERE o.id IN :ids AND o.status = 'PENDING' AND o.paymentDeadline < :now")
+    int cancelExpiredPendingOrdersByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+                                        @Param("remarks") String remarks);
 }
-
@@ -2,8 +2,10 @@ package com.example.demo.repositories;
 
 import com.example.demo.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -25,4 +27,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return true if user exists, false otherwise
      */
     boolean existsByUsername(String username);
+    
+    /**
+     * Find the IDs of users whose avatar is still stored inline as a data URL
+     * @return user IDs
+     */
+    @Query("SELECT u.id FROM User u WHERE u.avatarUrl LIKE 'data:%'")
+    List<Long> findIdsWithInlineAvatar();
 }
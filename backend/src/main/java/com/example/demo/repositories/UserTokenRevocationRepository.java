@@ -0,0 +1,25 @@
+package com.example.demo.repositories;
+
+import com.example.demo.models.UserTokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for UserTokenRevocation entity
+ */
+@Repository
+public interface UserTokenRevocationRepository extends JpaRepository<UserTokenRevocation, Long> {
+    
+    /**
+     * Delete user-wide revocations older than any token that could still be valid
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM UserTokenRevocation r WHERE r.revokedBefore < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
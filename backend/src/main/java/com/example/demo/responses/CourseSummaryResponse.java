@@ -0,0 +1,107 @@
+package com.example.demo.responses;
+
+/**
+ * Course summary response DTO, used by the course list page
+ */
+public class CourseSummaryResponse {
+    
+    private Long id;
+    private String title;
+    private String subtitle;
+    private String imageUrl;
+    private String priceText;
+    private Boolean isFeatured;
+    private Long chapterCount;
+    private Long videoCount;
+    private Long totalDuration; // Total duration of all videos in seconds
+    
+    // Constructor
+    public CourseSummaryResponse() {}
+    
+    public CourseSummaryResponse(Long id, String title, String subtitle, String imageUrl,
+                                 String priceText, Boolean isFeatured, Long chapterCount,
+                                 Long videoCount, Long totalDuration) {
+        this.id = id;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.imageUrl = imageUrl;
+        this.priceText = priceText;
+        this.isFeatured = isFeatured;
+        this.chapterCount = chapterCount;
+        this.videoCount = videoCount;
+        this.totalDuration = totalDuration;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public void setTitle(String title) {
+        this.title = title;
+    }
+    
+    public String getSubtitle() {
+        return subtitle;
+    }
+    
+    public void setSubtitle(String subtitle) {
+        this.subtitle = subtitle;
+    }
+    
+    public String getImageUrl() {
+        return imageUrl;
+    }
+    
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+    
+    public String getPriceText() {
+        return priceText;
+    }
+    
+    public void setPriceText(String priceText) {
+        this.priceText = priceText;
+    }
+    
+    public Boolean getIsFeatured() {
+        return isFeatured;
+    }
+    
+    public void setIsFeatured(Boolean isFeatured) {
+        this.isFeatured = isFeatured;
+    }
+    
+    public Long getChapterCount() {
+        return chapterCount;
+    }
+    
+    public void setChapterCount(Long chapterCount) {
+        this.chapterCount = chapterCount;
+    }
+    
+    public Long getVideoCount() {
+        return videoCount;
+    }
+    
+    public void setVideoCount(Long videoCount) {
+        this.videoCount = videoCount;
+    }
+    
+    public Long getTotalDuration() {
+        return totalDuration;
+    }
+    
+    public void setTotalDuration(Long totalDuration) {
+        this.totalDuration = totalDuration;
+    }
+}
@@ -19,6 +19,7 @@ public class UserResponse {
     private String location;
     private String githubLink;
     private String avatarUrl;
+    private String avatarThumbnailUrl;
     
     public UserResponse() {}
     
@@ -117,4 +118,12 @@ public class UserResponse {
     public void setAvatarUrl(String avatarUrl) {
         this.avatarUrl = avatarUrl;
     }
+    
+    public String getAvatarThumbnailUrl() {
+        return avatarThumbnailUrl;
+    }
+    
+    public void setAvatarThumbnailUrl(String avatarThumbnailUrl) {
+        this.avatarThumbnailUrl = avatarThumbnailUrl;
+    }
 }
@@ -1,12 +1,15 @@
 package com.example.demo.services;
 
+import com.example.demo.exceptions.ServiceUnavailableException;
 import com.example.demo.models.User;
 import com.example.demo.repositories.UserRepository;
 import com.example.demo.responses.AuthResponse;
 import com.example.demo.responses.UserResponse;
 import com.example.demo.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -22,24 +25,36 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
     
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private AvatarStorageService avatarStorageService;
+    
     /**
      * Register a new user
      * @param name user's name
      * @param username username (must be unique)
-     * @param password password (stored as plain text for simplicity)
+     * @param password password (stored as a bcrypt hash)
      * @return AuthResponse with user information
      * @throws IllegalArgumentException if username already exists
+     * @throws ServiceUnavailableException if password hashing is saturated
      */
+    // No surrounding transaction: no connection is held while the password is hashed
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse register(String name, String username, String password) {
-        // Check if username already exists
-        if (userRepository.existsByUsername(username)) {
-            throw new IllegalArgumentException("Username already exists");
+        // Create new user, a single insert guarded by the unique index on users.username
+        User user = new User(name, username, passwordHashingService.hash(password));
+        try {
+            user = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Only the failure path pays for the lookup that tells a taken username from other violations
+            if (userRepository.existsByUsername(username)) {
+                throw new IllegalArgumentException("Username already exists");
+            }
+            throw e;
         }
         
-        // Create new user
-        User user = new User(name, username, password);
-        user = userRepository.save(user);
-        
         // Convert to response
         UserResponse userResponse = convertToResponse(user);
         
@@ -55,16 +70,27 @@ public class AuthService {
      * @param password password
      * @return AuthResponse with user information if login successful
      * @throws IllegalArgumentException if username or password is incorrect
+     * @throws ServiceUnavailableException if password hashing is saturated
      */
+    // No surrounding transaction: no connection is held while the password is verified
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(String username, String password) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid username or password"));
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            // Same bcrypt work as a wrong password, so response time does not reveal which usernames exist
+            passwordHashingService.matchesUnknownUser(password);
+            throw new IllegalArgumentException("Invalid username or password");
+        }
         
-        // Simple password comparison (for simplicity, no encryption)
-        if (!user.getPassword().equals(password)) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             throw new IllegalArgumentException("Invalid username or password");
         }
         
+        // Replace plain-text or outdated hashes now that the raw password is at hand
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user = rehash(user, password);
+        }
+        
         // Convert to response
         UserResponse userResponse = convertToResponse(user);
         
@@ -74,6 +100,21 @@ public class AuthService {
         return new AuthResponse(userResponse, token);
     }
     
+    /**
+     * Best effort: the password is already verified, so a saturated hashing pool skips the rehash
+     * instead of failing the login; it is retried on the next login
+     */
+    private User rehash(User user, String password) {
+        String hashed;
+        try {
+            hashed = passwordHashingService.hash(password);
+        } catch (ServiceUnavailableException e) {
+            return user;
+        }
+        user.setPassword(hashed);
+        return userRepository.save(user);
+    }
+    
     /**
      * Convert User entity to UserResponse
      */
@@ -90,7 +131,9 @@ public class AuthService {
         response.setBirthday(user.getBirthday());
         response.setLocation(user.getLocation());
         response.setGithubLink(user.getGithubLink());
-        response.setAvatarUrl(user.getAvatarUrl());
+        response.setAvatarUrl(avatarStorageService.toPublicUrl(user.getAvatarUrl()));
+        response.setAvatarThumbnailUrl(
+                avatarStorageService.toThumbnailUrl(user.getAvatarUrl(), AvatarThumbnailService.DEFAULT_SIZE));
         return response;
     }
 }
@@ -0,0 +1,117 @@
+package com.example.demo.services;
+
+import com.example.demo.utils.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login and registration attempts per client IP and per username, entirely in memory,
+ * so credential stuffing is turned away before it reaches the database.
+ * IPv6 clients are keyed by their /64 prefix, since a single host usually controls the whole prefix,
+ * and usernames by their SHA-256 digest, so every key has a fixed size.
+ */
+@Service
+public class AuthThrottleService {
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+    
+    private final TokenBucketRateLimiter ipLimiter;
+    private final TokenBucketRateLimiter usernameLimiter;
+    
+    @Autowired
+    public AuthThrottleService(
+            @Value("${auth.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${auth.rate-limit.ip.per-minute:10}") double ipPerMinute,
+            @Value("${auth.rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${auth.rate-limit.username.per-minute:5}") double usernamePerMinute,
+            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys) {
+        this.ipLimiter = new TokenBucketRateLimiter(ipCapacity, ipPerMinute / 60, maxKeys);
+        this.usernameLimiter = new TokenBucketRateLimiter(usernameCapacity, usernamePerMinute / 60, maxKeys);
+    }
+    
+    /**
+     * Take a login attempt from the client IP and the username
+     * @return 0 if the attempt may proceed, otherwise seconds to wait before retrying
+     */
+    public long acquireLogin(String clientIp, String username) {
+        long wait = ipLimiter.tryAcquire(ipKey(clientIp));
+        if (wait == 0 && username != null) {
+            wait = usernameLimiter.tryAcquire(usernameKey(username));
+        }
+        return toRetryAfterSeconds(wait);
+    }
+    
+    /**
+     * Take a registration attempt from the client IP
+     * @return 0 if the attempt may proceed, otherwise seconds to wait before retrying
+     */
+    public long acquireRegistration(String clientIp) {
+        return toRetryAfterSeconds(ipLimiter.tryAcquire(ipKey(clientIp)));
+    }
+    
+    /**
+     * Drop the buckets of clients that have been quiet long enough to be back at full capacity
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdle() {
+        ipLimiter.evictIdle();
+        usernameLimiter.evictIdle();
+    }
+    
+    /**
+     * Client IPs with a bucket held
+     */
+    public int getTrackedIpCount() {
+        return ipLimiter.size();
+    }
+    
+    /**
+     * Usernames with a bucket held
+     */
+    public int getTrackedUsernameCount() {
+        return usernameLimiter.size();
+    }
+    
+    static String ipKey(String clientIp) {
+        // Only IPv6 literals contain a colon, so this never triggers a DNS lookup
+        if (clientIp == null || clientIp.indexOf(':') < 0) {
+            return clientIp;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(clientIp);
+            if (address instanceof Inet6Address) {
+                return HexFormat.of().formatHex(address.getAddress(), 0, 8) + "/64";
+            }
+            return address.getHostAddress();
+        } catch (UnknownHostException e) {
+            return clientIp;
+        }
+    }
+    
+    static String usernameKey(String username) {
+        byte[] hash = SHA_256.get().digest(username.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+    
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.services;
+
+import com.example.demo.caches.UserProfileCache;
+import com.example.demo.models.User;
+import com.example.demo.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves avatars stored inline in the users table as data URLs into the avatar store.
+ * Inline avatars predate the upload size limit and are moved whatever their size;
+ * values that are not a readable image are cleared, so they are not retried on every startup.
+ */
+@Service
+public class AvatarMigrationService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AvatarMigrationService.class);
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private AvatarStorageService avatarStorageService;
+    
+    @Autowired
+    private AvatarThumbnailService avatarThumbnailService;
+    
+    @Autowired
+    private UserProfileCache userProfileCache;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    /**
+     * Migrate every inline avatar, one user per transaction so a single large row is in memory at a time
+     * @return number of users migrated
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int migrateInlineAvatars() {
+        List<Long> userIds = userRepository.findIdsWithInlineAvatar();
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        int migrated = 0;
+        for (Long userId : userIds) {
+            try {
+                Boolean done = template.execute(status -> migrate(userId));
+                if (Boolean.TRUE.equals(done)) {
+                    migrated++;
+                }
+            } catch (RuntimeException e) {
+                // E.g. the avatar store cannot be written, the row is left inline for the next startup
+                log.warn("Failed to migrate inline avatar of user {}", userId, e);
+            }
+        }
+        log.info("Moved {} inline avatars to the avatar store", migrated);
+        return migrated;
+    }
+    
+    private boolean migrate(Long userId) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null || !AvatarStorageService.isDataUrl(user.getAvatarUrl())) {
+            return false;
+        }
+        String reference;
+        try {
+            reference = avatarStorageService.storeLegacyDataUrl(user.getAvatarUrl());
+        } catch (IllegalArgumentException e) {
+            log.warn("Cleared inline avatar of user {} ({} chars): {}", userId, user.getAvatarUrl().length(), e.getMessage());
+            reference = null;
+        }
+        user.setAvatarUrl(reference);
+        avatarThumbnailService.generateAfterCommit(reference);
+        userRepository.save(user);
+        // Profiles cached before the migration still hold the data URL
+        userProfileCache.invalidateAfterCommit(userId);
+        return reference != null;
+    }
+}
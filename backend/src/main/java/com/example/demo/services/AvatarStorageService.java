@@ -0,0 +1,318 @@
+package com.example.demo.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed avatar store on local disk.
+ * Images are stored once per SHA-256 of their bytes; the users row only keeps the short
+ * reference "/api/avatars/{hash}.{ext}", which never changes meaning and can be cached forever.
+ */
+@Service
+public class AvatarStorageService {
+
+    public static final String URL_PREFIX = "/api/avatars/";
+
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})\\.(png|jpg|gif|webp)");
+
+    private static final int MAX_EXTERNAL_URL_LENGTH = 2048;
+
+    private final Path storageDir;
+    private final String baseUrl;
+    private final int maxBytes;
+
+    @Autowired
+    public AvatarStorageService(
+            @Value("${avatars.storage-dir:data/avatars}") String storageDir,
+            @Value("${avatars.base-url:http://localhost:8080}") String baseUrl,
+            @Value("${avatars.max-bytes:2097152}") int maxBytes) {
+        this.storageDir = Paths.get(storageDir).toAbsolutePath();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Store an image, identical images share one file
+     * @return the avatar reference to keep in the users row
+     * @throws IllegalArgumentException if the data is empty, too large or not a PNG, JPEG, GIF or WebP image
+     */
+    public String store(byte[] data) {
+        return store(data, maxBytes);
+    }
+
+    private String store(byte[] data, int limit) {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Avatar image is empty");
+        }
+        if (data.length > limit) {
+            throw new IllegalArgumentException("Avatar image is too large");
+        }
+        String extension = detectExtension(data);
+        if (extension == null) {
+            throw new IllegalArgumentException("Unsupported avatar image type");
+        }
+
+        String hash = sha256Hex(data);
+        String fileName = hash + "." + extension;
+        Path target = pathOf(fileName);
+        if (!Files.exists(target)) {
+            write(target, data);
+        }
+        return URL_PREFIX + fileName;
+    }
+
+    /**
+     * Store an image sent as a base64 data URL, as the profile form does
+     * @return the avatar reference to keep in the users row
+     * @throws IllegalArgumentException if the data URL is malformed or holds an unsupported image
+     */
+    public String storeDataUrl(String dataUrl) {
+        return store(decodeDataUrl(dataUrl), maxBytes);
+    }
+
+    /**
+     * Store an image kept inline in the users table before the avatar store existed.
+     * Such rows were accepted without a size limit, so the upload limit does not apply to them.
+     * @return the avatar reference to keep in the users row
+     * @throws IllegalArgumentException if the data URL is malformed or holds an unsupported image
+     */
+    public String storeLegacyDataUrl(String dataUrl) {
+        return store(decodeDataUrl(dataUrl), Integer.MAX_VALUE);
+    }
+
+    private static byte[] decodeDataUrl(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        if (!dataUrl.startsWith("data:image/") || comma < 0 || !dataUrl.substring(0, comma).endsWith(";base64")) {
+            throw new IllegalArgumentException("Invalid avatar data URL");
+        }
+        try {
+            return Base64.getMimeDecoder().decode(dataUrl.substring(comma + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid avatar data URL");
+        }
+    }
+
+    /**
+     * Turn an avatar value sent by a client into what the users row keeps:
+     * data URLs are stored on disk, public URLs of stored avatars go back to their reference,
+     * absolute http(s) URLs of external images are kept as they are and blank values clear the avatar
+     * @throws IllegalArgumentException if the value is none of these
+     */
+    public String toReference(String avatarUrl) {
+        if (avatarUrl == null || avatarUrl.trim().isEmpty()) {
+            return null;
+        }
+        String value = avatarUrl.trim();
+        if (value.startsWith("data:")) {
+            return storeDataUrl(value);
+        }
+        String reference = value.startsWith(baseUrl + URL_PREFIX) ? value.substring(baseUrl.length()) : value;
+        if (reference.startsWith(URL_PREFIX)) {
+            if (fileNameOf(reference) == null) {
+                throw new IllegalArgumentException("Invalid avatar URL");
+            }
+            return reference;
+        }
+        if (!isExternalImageUrl(value)) {
+            throw new IllegalArgumentException("Invalid avatar URL");
+        }
+        return value;
+    }
+
+    private static boolean isExternalImageUrl(String value) {
+        if (value.length() > MAX_EXTERNAL_URL_LENGTH) {
+            return false;
+        }
+        try {
+            URI uri = new URI(value);
+            return ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                    && uri.getHost() != null;
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Public URL of an avatar reference, external URLs are returned unchanged
+     */
+    public String toPublicUrl(String reference) {
+        if (reference != null && reference.startsWith(URL_PREFIX)) {
+            return baseUrl + reference;
+        }
+        return reference;
+    }
+
+    /**
+     * Public URL of a thumbnail of an avatar reference, external URLs are returned unchanged
+     */
+    public String toThumbnailUrl(String reference, int size) {
+        if (reference != null && reference.startsWith(URL_PREFIX)) {
+            return baseUrl + reference + "?size=" + size;
+        }
+        return reference;
+    }
+
+    /**
+     * Check whether a users row value is an inline data URL still waiting to be moved to disk
+     */
+    public static boolean isDataUrl(String avatarUrl) {
+        return avatarUrl != null && avatarUrl.startsWith("data:");
+    }
+
+    /**
+     * Find a stored avatar by file name
+     * @return the file, empty if the name is not a stored avatar
+     */
+    public Optional<Path> resolve(String fileName) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(fileName);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Find a generated thumbnail of a stored avatar
+     * @return the JPEG file, empty if it has not been generated (yet)
+     */
+    public Optional<Path> resolveThumbnail(String fileName, int size) {
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path path = pathOf(thumbnailName(fileName, size));
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Store a thumbnail of a stored avatar as JPEG
+     */
+    public void storeThumbnail(String fileName, int size, byte[] jpeg) {
+        write(pathOf(thumbnailName(fileName, size)), jpeg);
+    }
+
+    /**
+     * Record that thumbnails cannot be generated for a stored avatar, so generation is not retried
+     */
+    public void markThumbnailFailed(String fileName) {
+        write(pathOf(hashOf(fileName) + ".failed"), new byte[0]);
+    }
+
+    /**
+     * Whether thumbnail generation failed for a stored avatar
+     */
+    public boolean hasThumbnailFailed(String fileName) {
+        return Files.exists(pathOf(hashOf(fileName) + ".failed"));
+    }
+
+    /**
+     * File name of a stored avatar reference, null for external URLs
+     */
+    public static String fileNameOf(String reference) {
+        if (reference == null || !reference.startsWith(URL_PREFIX)) {
+            return null;
+        }
+        String fileName = reference.substring(URL_PREFIX.length());
+        return FILE_NAME.matcher(fileName).matches() ? fileName : null;
+    }
+
+    /**
+     * Content type of a stored avatar file name
+     */
+    public static String contentType(String fileName) {
+        String extension = fileName.substring(fileName.lastIndexOf('.') + 1);
+        return switch (extension) {
+            case "png" -> "image/png";
+            case "jpg" -> "image/jpeg";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
+
+    /**
+     * Content hash of a stored avatar file name, usable as a strong ETag
+     */
+    public static String hashOf(String fileName) {
+        return fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+
+    private static String thumbnailName(String fileName, int size) {
+        return hashOf(fileName) + "_" + size + ".jpg";
+    }
+
+    private Path pathOf(String fileName) {
+        // Fan out over 256 directories so none grows too large
+        return storageDir.resolve(fileName.substring(0, 2)).resolve(fileName);
+    }
+
+    private void write(Path target, byte[] data) {
+        try {
+            Files.createDirectories(target.getParent());
+            // Write aside then rename, readers never see a partial file
+            Path temp = Files.createTempFile(target.getParent(), "upload-", ".tmp");
+            try {
+                Files.write(temp, data);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Same content stored concurrently
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store avatar", e);
+        }
+    }
+
+    private static String detectExtension(byte[] data) {
+        if (startsWith(data, 0, 0x89, 'P', 'N', 'G')) {
+            return "png";
+        }
+        if (startsWith(data, 0, 0xFF, 0xD8, 0xFF)) {
+            return "jpg";
+        }
+        if (startsWith(data, 0, 'G', 'I', 'F', '8')) {
+            return "gif";
+        }
+        if (startsWith(data, 0, 'R', 'I', 'F', 'F') && startsWith(data, 8, 'W', 'E', 'B', 'P')) {
+            return "webp";
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... magic) {
+        if (data.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((data[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.demo.services;
+
+import com.example.demo.helpers.TransactionHelper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates square JPEG thumbnails of stored avatars on a small, bounded thread pool.
+ * Each avatar is decoded once and scaled down step by step, 128px from the original, then 64px from 128px
+ * and 32px from 64px. When the queue is full the work is dropped; the original keeps being served
+ * and generation is requested again the next time a thumbnail is asked for.
+ * Images are only decoded if their header declares at most {@code max-pixels} pixels. Images that are too large
+ * or cannot be decoded are marked as failed in the avatar store and never queued again.
+ */
+@Service
+public class AvatarThumbnailService {
+    
+    private static final Logger log = LoggerFactory.getLogger(AvatarThumbnailService.class);
+    
+    /** Thumbnail edge lengths in pixels, largest first */
+    public static final int[] SIZES = {128, 64, 32};
+    
+    /** Size used in user responses, the UI shows avatars at 32px in headers and order lists */
+    public static final int DEFAULT_SIZE = 32;
+    
+    private static final float JPEG_QUALITY = 0.85f;
+    
+    private final AvatarStorageService avatarStorageService;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+    
+    // Avatars queued or being processed, so repeated requests do not queue the same work twice
+    private final ConcurrentHashMap<String, Boolean> pending = new ConcurrentHashMap<>();
+    
+    private final LongAdder generatedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    
+    @Autowired
+    public AvatarThumbnailService(
+            AvatarStorageService avatarStorageService,
+            @Value("${avatars.thumbnails.threads:2}") int threads,
+            @Value("${avatars.thumbnails.queue-capacity:100}") int queueCapacity,
+            @Value("${avatars.thumbnails.max-pixels:16777216}") long maxPixels) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.avatarStorageService = avatarStorageService;
+        this.maxPixels = maxPixels;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Generate the thumbnails of an avatar reference once the current transaction commits.
+     * External avatar URLs are ignored.
+     */
+    public void generateAfterCommit(String reference) {
+        String fileName = AvatarStorageService.fileNameOf(reference);
+        if (fileName != null) {
+            TransactionHelper.runAfterCommit(() -> generateAsync(fileName));
+        }
+    }
+    
+    /**
+     * Queue thumbnail generation for a stored avatar file, unless it is already queued or has failed before
+     */
+    public void generateAsync(String fileName) {
+        if (!canGenerate(fileName) || pending.putIfAbsent(fileName, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(fileName);
+                } finally {
+                    pending.remove(fileName);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(fileName);
+            rejectedCount.increment();
+        }
+    }
+    
+    /**
+     * Find the thumbnail of a stored avatar for the requested display size, the smallest one at least as large
+     * @return the thumbnail, empty if the size is larger than any thumbnail or it has not been generated yet
+     */
+    public Optional<Path> findThumbnail(String fileName, int requestedSize) {
+        int size = fitSize(requestedSize);
+        return size > 0 ? avatarStorageService.resolveThumbnail(fileName, size) : Optional.empty();
+    }
+    
+    /**
+     * Smallest thumbnail size at least as large as the requested size, 0 if none is
+     */
+    public static int fitSize(int requestedSize) {
+        int fit = 0;
+        for (int size : SIZES) {
+            if (size >= requestedSize) {
+                fit = size;
+            }
+        }
+        return fit;
+    }
+    
+    /**
+     * Whether thumbnails can be generated for a stored avatar file.
+     * The JDK has no WebP decoder, WebP avatars are always served as uploaded.
+     */
+    public static boolean isSupported(String fileName) {
+        return fileName != null && !fileName.endsWith(".webp");
+    }
+    
+    /**
+     * Whether thumbnails can still appear for a stored avatar file: its type is supported
+     * and an earlier attempt did not find it too large or undecodable
+     */
+    public boolean canGenerate(String fileName) {
+        return isSupported(fileName) && !avatarStorageService.hasThumbnailFailed(fileName);
+    }
+    
+    /**
+     * Thumbnail sets generated
+     */
+    public long getGeneratedCount() {
+        return generatedCount.sum();
+    }
+    
+    /**
+     * Avatars that were too large, could not be decoded or could not be written
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+    
+    /**
+     * Generations dropped because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+    
+    /**
+     * Avatars waiting for a worker
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    void generate(String fileName) {
+        if (avatarStorageService.resolveThumbnail(fileName, SIZES[SIZES.length - 1]).isPresent()) {
+            // Smallest size is written last, all sizes exist
+            return;
+        }
+        Optional<Path> original = avatarStorageService.resolve(fileName);
+        if (original.isEmpty()) {
+            return;
+        }
+        BufferedImage image;
+        try {
+            image = decode(original.get());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to decode avatar {}", fileName, e);
+            image = null;
+        }
+        if (image == null) {
+            // Retrying cannot help, every later thumbnail request serves the original instead
+            failedCount.increment();
+            avatarStorageService.markThumbnailFailed(fileName);
+            return;
+        }
+        try {
+            BufferedImage current = cropSquare(image);
+            for (int size : SIZES) {
+                current = scaleDown(current, size);
+                avatarStorageService.storeThumbnail(fileName, size, encodeJpeg(current));
+            }
+            generatedCount.increment();
+        } catch (IOException | RuntimeException e) {
+            failedCount.increment();
+            log.warn("Failed to generate thumbnails for avatar {}", fileName, e);
+        }
+    }
+    
+    /**
+     * Decode an image after checking the dimensions in its header, so a small file declaring a huge canvas
+     * is refused before its pixels are allocated
+     * @return the image, null if no decoder reads it or it has more than {@code maxPixels} pixels
+     */
+    private BufferedImage decode(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Avatar {} has {} pixels, above the thumbnail limit of {}", path.getFileName(), pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+    
+    /**
+     * Center square of the image, flattened onto white so transparent PNG and GIF pixels encode as JPEG
+     */
+    private static BufferedImage cropSquare(BufferedImage image) {
+        int edge = Math.min(image.getWidth(), image.getHeight());
+        int x = (image.getWidth() - edge) / 2;
+        int y = (image.getHeight() - edge) / 2;
+        BufferedImage square = new BufferedImage(edge, edge, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = square.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, edge, edge);
+            graphics.drawImage(image, 0, 0, edge, edge, x, y, x + edge, y + edge, null);
+        } finally {
+            graphics.dispose();
+        }
+        return square;
+    }
+    
+    /**
+     * Scale a square image down to the target edge, halving at most once per pass to keep bilinear filtering sharp.
+     * Images already smaller than the target are left as they are.
+     */
+    private static BufferedImage scaleDown(BufferedImage image, int target) {
+        BufferedImage current = image;
+        while (current.getWidth() > target) {
+            int edge = Math.max(target, current.getWidth() / 2);
+            BufferedImage next = new BufferedImage(edge, edge, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, edge, edge, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        }
+        return current;
+    }
+    
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.demo.services;
 
+import com.example.demo.caches.CourseCatalogCache;
 import com.example.demo.exceptions.ResourceNotFoundException;
 import com.example.demo.models.Course;
+import com.example.demo.repositories.ChapterRepository;
 import com.example.demo.repositories.CourseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -17,53 +22,56 @@ import java.util.Optional;
 @Transactional
 public class CourseService {
     
+    private static final Logger log = LoggerFactory.getLogger(CourseService.class);
+    
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private ChapterRepository chapterRepository;
+    
+    @Autowired
+    private CourseCatalogCache courseCatalogCache;
+    
     /**
      * Get all courses with chapters and videos
+     * Served from the in-memory catalog snapshot, no transaction is needed
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Course> getAllCourses() {
-        try {
-            // Use standard findAll() method
-            List<Course> courses = courseRepository.findAll();
-            System.out.println("Found " + courses.size() + " courses");
-            return courses;
-        } catch (Exception e) {
-            System.err.println("Error fetching courses: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        List<Course> courses = courseCatalogCache.getSnapshot().getCourses();
+        log.debug("Found {} courses", courses.size());
+        return courses;
     }
     
     /**
      * Get a single course by ID with chapters and videos
+     * Served from the in-memory catalog snapshot, no transaction is needed
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<Course> getCourseById(Long id) {
-        try {
-            Optional<Course> courseOpt = courseRepository.findById(id);
-            System.out.println("Course found: " + courseOpt.isPresent());
-            return courseOpt;
-        } catch (Exception e) {
-            System.err.println("Error fetching course by id: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        Optional<Course> courseOpt = courseCatalogCache.getSnapshot().findById(id);
+        log.debug("Course {} found: {}", id, courseOpt.isPresent());
+        return courseOpt;
     }
     
     /**
      * Create a new course
      */
     public Course createCourse(Course course) {
-        return courseRepository.save(course);
+        Course createdCourse = courseRepository.save(course);
+        courseCatalogCache.refreshAfterCommit();
+        return createdCourse;
     }
     
     /**
      * Update a course
      */
     public Course updateCourse(Long id, Course courseDetails) {
-        Course course = courseRepository.findById(id)
+        // Load the whole tree up front, the updated course is mapped to a full response
+        Course course = courseRepository.findByIdWithChapters(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
+        chapterRepository.findByCourseIdWithVideos(id);
         
         course.setTitle(courseDetails.getTitle());
         course.setSubtitle(courseDetails.getSubtitle());
@@ -74,7 +82,9 @@ public class CourseService {
         course.setImageSubtitle(courseDetails.getImageSubtitle());
         course.setIsFeatured(courseDetails.getIsFeatured());
         
-        return courseRepository.save(course);
+        Course updatedCourse = courseRepository.save(course);
+        courseCatalogCache.refreshAfterCommit();
+        return updatedCourse;
     }
     
     /**
@@ -84,20 +94,17 @@ public class CourseService {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
         courseRepository.delete(course);
+        courseCatalogCache.refreshAfterCommit();
     }
     
     /**
      * Get featured courses with chapters and videos
+     * Served from the in-memory catalog snapshot, no transaction is needed
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Course> getFeaturedCourses() {
-        try {
-            List<Course> courses = courseRepository.findByIsFeaturedTrue();
-            System.out.println("Found " + courses.size() + " featured courses");
-            return courses;
-        } catch (Exception e) {
-            System.err.println("Error fetching featured courses: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        }
+        List<Course> courses = courseCatalogCache.getSnapshot().getFeaturedCourses();
+        log.debug("Found {} featured courses", courses.size());
+        return courses;
     }
 }
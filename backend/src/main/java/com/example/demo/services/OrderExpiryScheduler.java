@@ -0,0 +1,120 @@
+package com.example.demo.services;
+
+import com.example.demo.helpers.TransactionHelper;
+import com.example.demo.models.Order;
+import com.example.demo.projections.PendingOrderDeadline;
+import com.example.demo.repositories.OrderRepository;
+import com.example.demo.utils.HierarchicalTimerWheel;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Expires pending orders within about a second of their payment deadline.
+ * Deadlines are kept in an in-process timer wheel, rebuilt from the database on startup and fed by new orders,
+ * so expiry never polls the orders table. The hourly sweep in OrderService stays as a backstop
+ * for orders this instance did not see, such as those created by another instance.
+ */
+@Service
+public class OrderExpiryScheduler {
+    
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryScheduler.class);
+    
+    private static final long TICK_MILLIS = 1000;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${orders.expiry.batch-size:100}")
+    private int batchSize;
+    
+    private final HierarchicalTimerWheel<Long> wheel =
+            new HierarchicalTimerWheel<>(TICK_MILLIS, System.currentTimeMillis());
+    
+    /**
+     * Load the deadlines of all pending orders once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        List<PendingOrderDeadline> pending = template.execute(status -> orderRepository.findPendingDeadlines());
+        if (pending == null) {
+            return;
+        }
+        for (PendingOrderDeadline order : pending) {
+            wheel.schedule(order.getId(), toEpochMillis(order.getPaymentDeadline()));
+        }
+        log.info("Scheduled expiry of {} pending orders", pending.size());
+    }
+    
+    /**
+     * Schedule the expiry of an order once the current transaction commits
+     */
+    public void scheduleAfterCommit(Long orderId, LocalDateTime paymentDeadline) {
+        long deadlineMillis = toEpochMillis(paymentDeadline);
+        TransactionHelper.runAfterCommit(() -> wheel.schedule(orderId, deadlineMillis));
+    }
+    
+    /**
+     * Cancel the orders whose deadline has passed since the last tick, in small batches.
+     * The update re-checks status and deadline, so orders paid in the meantime are left alone.
+     * @return number of orders cancelled
+     */
+    @Scheduled(fixedDelay = TICK_MILLIS)
+    @Timed(value = "orders.expiry.tick", description = "Expiry of orders whose deadline passed since the last tick")
+    public int tick() {
+        List<Long> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        LocalDateTime now = LocalDateTime.now();
+        int cancelled = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            try {
+                Integer updated = template.execute(status ->
+                        orderRepository.cancelExpiredPendingOrdersByIds(batch, now, Order.EXPIRED_REMARKS));
+                cancelled += updated == null ? 0 : updated;
+            } catch (RuntimeException e) {
+                // Left for the hourly sweep
+                log.warn("Failed to expire {} orders, leaving them for the hourly sweep", batch.size(), e);
+            }
+        }
+        if (cancelled > 0) {
+            log.info("Expired {} orders at their payment deadline", cancelled);
+        }
+        return cancelled;
+    }
+    
+    /**
+     * Number of orders waiting for their deadline
+     */
+    public int getScheduledCount() {
+        return wheel.size();
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        // Deadlines are written with LocalDateTime.now(), i.e. in the system time zone
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
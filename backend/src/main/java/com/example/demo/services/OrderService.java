@@ -1,22 +1,35 @@
 package com.example.demo.services;
 
 import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.helpers.CursorPage;
+import com.example.demo.helpers.PageCursor;
 import com.example.demo.models.Course;
 import com.example.demo.models.Order;
 import com.example.demo.models.User;
+import com.example.demo.projections.OrderView;
 import com.example.demo.repositories.CourseRepository;
 import com.example.demo.repositories.OrderRepository;
 import com.example.demo.repositories.UserRepository;
+import com.example.demo.utils.OrderNumberGenerator;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.Random;
 
 /**
  * Service layer for Order, handles business logic
@@ -25,6 +38,8 @@ import java.util.Random;
 @Transactional
 public class OrderService {
     
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+    
     @Autowired
     private OrderRepository orderRepository;
     
@@ -34,23 +49,33 @@ public class OrderService {
     @Autowired
     private CourseRepository courseRepository;
     
-    private static final Random random = new Random();
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private OrderExpiryScheduler orderExpiryScheduler;
+    
+    @Autowired
+    private OrderNumberGenerator orderNumberGenerator;
+    
+    @Value("${orders.expiry.chunk-size:500}")
+    private int expiryChunkSize;
     
     /**
-     * Generate order number: yyyyMMddHHmmss + 4 random digits (18 digits total)
+     * Continue order numbers after the highest persisted one, so numbers the generator issued ahead of
+     * the clock before a restart are not issued again
      */
-    private String generateOrderNumber() {
-        LocalDateTime now = LocalDateTime.now();
-        String timestamp = now.format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
-        
-        // Generate 4 random alphanumeric characters
-        String randomPart = "";
-        String chars = "0123456789abcdefghijklmnopqrstuvwxyz";
-        for (int i = 0; i < 4; i++) {
-            randomPart += chars.charAt(random.nextInt(chars.length()));
+    @PostConstruct
+    void seedOrderNumbers() {
+        Optional<String> highest = orderRepository.findMaxOrderNumber();
+        if (highest.isEmpty()) {
+            return;
+        }
+        try {
+            orderNumberGenerator.seed(highest.get());
+        } catch (IllegalArgumentException e) {
+            log.warn("Not seeding order numbers from unrecognised order number {}", highest.get());
         }
-        
-        return timestamp + randomPart;
     }
     
     /**
@@ -63,52 +88,111 @@ public class OrderService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
         
-        String orderNumber = generateOrderNumber();
+        String orderNumber = orderNumberGenerator.next();
         LocalDateTime paymentDeadline = LocalDateTime.now().plusDays(3); // 3 days from now
         
         Order order = new Order(orderNumber, user, course, paymentDeadline);
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        orderExpiryScheduler.scheduleAfterCommit(savedOrder.getId(), paymentDeadline);
+        return savedOrder;
     }
     
     /**
      * Get order by order number
      */
-    public Optional<Order> getOrderByOrderNumber(String orderNumber) {
-        return orderRepository.findByOrderNumber(orderNumber);
+    @Transactional(readOnly = true)
+    public Optional<OrderView> getOrderByOrderNumber(String orderNumber) {
+        return orderRepository.findViewByOrderNumber(orderNumber);
     }
     
     /**
      * Get order by ID
      */
-    public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<OrderView> getOrderById(Long id) {
+        return orderRepository.findViewById(id);
     }
     
     /**
-     * Get all orders by user ID
+     * Get all orders of a user, newest first
      */
-    public List<Order> getOrdersByUserId(Long userId) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @Transactional(readOnly = true)
+    public List<OrderView> getAllOrdersByUserId(Long userId) {
+        return orderRepository.findAllViewsByUserId(userId);
     }
     
     /**
-     * Get all orders by course ID
+     * Get one page of a user's orders, newest first
+     * @param cursor cursor of the previous page, null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
      */
-    public List<Order> getOrdersByCourseId(Long courseId) {
-        return orderRepository.findByCourseIdOrderByCreatedAtDesc(courseId);
+    @Transactional(readOnly = true)
+    public CursorPage<List<OrderView>> getOrdersByUserId(Long userId, String cursor, int limit) {
+        // Fetch one extra row to learn whether another page follows
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+        Limit fetch = Limit.of(limit + 1);
+        List<OrderView> orders;
+        if (after == null) {
+            orders = orderRepository.findPageByUserId(userId, fetch);
+        } else if (after.getCreatedAt() == null) {
+            orders = orderRepository.findPageByUserIdAfterUndated(userId, after.getId(), fetch);
+        } else {
+            orders = orderRepository.findPageByUserIdAfter(userId, after.getCreatedAt(), after.getId(), fetch);
+        }
+        return toPage(orders, limit);
+    }
+    
+    /**
+     * Get all orders of a course, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<OrderView> getAllOrdersByCourseId(Long courseId) {
+        return orderRepository.findAllViewsByCourseId(courseId);
+    }
+    
+    /**
+     * Get one page of a course's orders, newest first
+     * @param cursor cursor of the previous page, null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<List<OrderView>> getOrdersByCourseId(Long courseId, String cursor, int limit) {
+        PageCursor after = cursor == null ? null : PageCursor.decode(cursor);
+        Limit fetch = Limit.of(limit + 1);
+        List<OrderView> orders;
+        if (after == null) {
+            orders = orderRepository.findPageByCourseId(courseId, fetch);
+        } else if (after.getCreatedAt() == null) {
+            orders = orderRepository.findPageByCourseIdAfterUndated(courseId, after.getId(), fetch);
+        } else {
+            orders = orderRepository.findPageByCourseIdAfter(courseId, after.getCreatedAt(), after.getId(), fetch);
+        }
+        return toPage(orders, limit);
     }
     
     /**
      * Get all orders by user ID and course ID
      */
-    public List<Order> getOrdersByUserIdAndCourseId(Long userId, Long courseId) {
+    @Transactional(readOnly = true)
+    public List<OrderView> getOrdersByUserIdAndCourseId(Long userId, Long courseId) {
         return orderRepository.findByUserIdAndCourseIdOrderByCreatedAtDesc(userId, courseId);
     }
     
+    private CursorPage<List<OrderView>> toPage(List<OrderView> orders, int limit) {
+        if (orders.size() <= limit) {
+            return new CursorPage<>(orders, null);
+        }
+        List<OrderView> page = new ArrayList<>(orders.subList(0, limit));
+        OrderView last = page.get(limit - 1);
+        // Orders without a creation time (rows older than the column) get an id-only cursor
+        return new CursorPage<>(page, PageCursor.of(last.getCreatedAt(), last.getId()).encode());
+    }
+    
     /**
      * Complete payment for an order
+     * @return the paid order, read back through its projection
      */
-    public Order completePayment(String orderNumber) {
+    public OrderView completePayment(String orderNumber) {
         Order order = orderRepository.findByOrderNumber(orderNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with order number: " + orderNumber));
         
@@ -122,35 +206,45 @@ public class OrderService {
         
         order.setStatus("PAID");
         order.setPaymentDate(LocalDateTime.now());
-        return orderRepository.save(order);
+        orderRepository.save(order);
+        // The user and course stay unloaded, the projection query flushes the update first
+        return orderRepository.findViewById(order.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with order number: " + orderNumber));
     }
     
     /**
      * Cancel expired orders (scheduled task)
-     * This method runs periodically to cancel orders that have passed their payment deadline
+     * This method runs periodically to cancel orders that have passed their payment deadline.
+     * OrderExpiryScheduler expires orders at their deadline; this sweep catches any it missed.
+     * Orders are cancelled with set-based updates in bounded chunks, each committed on its own,
+     * so no transaction holds row locks for long and payments in flight are never waited on.
+     * @return total number of orders cancelled
      */
     @Scheduled(fixedRate = 3600000) // Run every hour
-    public void cancelExpiredOrders() {
-        List<Order> expiredOrders = orderRepository.findExpiredPendingOrders();
-        for (Order order : expiredOrders) {
-            order.setStatus("CANCELLED");
-            order.setRemarks("期限內未完成付款");
-            orderRepository.save(order);
-        }
-        if (!expiredOrders.isEmpty()) {
-            System.out.println("Cancelled " + expiredOrders.size() + " expired orders");
-        }
-    }
-    
-    /**
-     * Manually cancel an expired order (for immediate processing)
-     */
-    public void cancelExpiredOrder(Order order) {
-        if ("PENDING".equals(order.getStatus()) && LocalDateTime.now().isAfter(order.getPaymentDeadline())) {
-            order.setStatus("CANCELLED");
-            order.setRemarks("期限內未完成付款");
-            orderRepository.save(order);
+    @Timed(value = "orders.expiry.sweep", description = "Hourly sweep cancelling expired pending orders")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int cancelExpiredOrders() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        LocalDateTime now = LocalDateTime.now();
+        
+        int total = 0;
+        int chunk = 0;
+        int cancelled;
+        do {
+            Integer updated = template.execute(status ->
+                    orderRepository.cancelExpiredPendingOrders(now, Order.EXPIRED_REMARKS, expiryChunkSize));
+            cancelled = updated == null ? 0 : updated;
+            total += cancelled;
+            chunk++;
+            if (cancelled > 0) {
+                log.debug("Cancelled {} expired orders in chunk {}", cancelled, chunk);
+            }
+        } while (cancelled == expiryChunkSize);
+        
+        if (total > 0) {
+            log.info("Cancelled {} expired orders in {} chunks", total, chunk);
         }
+        return total;
     }
 }
-
@@ -0,0 +1,214 @@
+package com.example.demo.services;
+
+import com.example.demo.exceptions.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashes and verifies passwords with bcrypt on a dedicated, bounded thread pool.
+ * Keeps the CPU cost of hashing off request threads and caps it, so a login burst cannot starve other traffic:
+ * when the queue is full, the expected wait exceeds the timeout, or a hash waits longer than the timeout,
+ * callers get a ServiceUnavailableException (503).
+ * A hash that has started cannot be stopped, as bcrypt does not check for interrupts; work is therefore shed
+ * before it is queued, and a timed-out caller only drops hashes that are still waiting.
+ * Passwords stored before hashing was introduced are plain text; they still verify and report needsRehash.
+ */
+@Service
+public class PasswordHashingService {
+    
+    private static final String BUSY_MESSAGE = "Authentication is busy, please retry shortly";
+    
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final long timeoutMillis;
+    
+    // Hash of a random password at the configured strength, checked for unknown usernames
+    private final String dummyHash;
+    // Duration of the startup hash, the cost estimate until real hashes have been timed
+    private final long initialHashNanos;
+    
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    
+    @Autowired
+    public PasswordHashingService(
+            @Value("${auth.password.bcrypt-strength:10}") int strength,
+            @Value("${auth.password.threads:0}") int threads,
+            @Value("${auth.password.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password.timeout-ms:5000}") long timeoutMillis) {
+        this.poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+        long start = System.nanoTime();
+        this.dummyHash = encoder.encode(UUID.randomUUID().toString());
+        this.initialHashNanos = System.nanoTime() - start;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    /**
+     * Hash a raw password
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public String hash(String rawPassword) {
+        return call(() -> encoder.encode(rawPassword));
+    }
+    
+    /**
+     * Check a raw password against a stored bcrypt hash or legacy plain-text password
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (!isBcryptHash(storedPassword)) {
+            // Legacy plain-text row, compared in constant time
+            return MessageDigest.isEqual(
+                    rawPassword.getBytes(StandardCharsets.UTF_8),
+                    storedPassword.getBytes(StandardCharsets.UTF_8));
+        }
+        return call(() -> encoder.matches(rawPassword, storedPassword));
+    }
+    
+    /**
+     * Check a raw password for a user that does not exist: runs a real bcrypt check against a fixed hash
+     * and always returns false, so unknown usernames take as long, and are shed the same way, as wrong passwords
+     * @throws ServiceUnavailableException if the hashing pool is saturated
+     */
+    public boolean matchesUnknownUser(String rawPassword) {
+        if (rawPassword != null) {
+            call(() -> encoder.matches(rawPassword, dummyHash));
+        }
+        return false;
+    }
+    
+    /**
+     * Whether a stored password should be replaced with a fresh hash: plain text, or bcrypt with a lower cost
+     */
+    public boolean needsRehash(String storedPassword) {
+        return !isBcryptHash(storedPassword) || encoder.upgradeEncoding(storedPassword);
+    }
+    
+    /**
+     * Tasks waiting for a hashing thread
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    
+    /**
+     * Hashing threads currently busy
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+    
+    /**
+     * Hash and verify operations completed
+     */
+    public long getHashCount() {
+        return hashCount.sum();
+    }
+    
+    /**
+     * Total time spent hashing, excluding queueing, in nanoseconds
+     */
+    public long getHashNanos() {
+        return hashNanos.sum();
+    }
+    
+    /**
+     * Operations shed because the pool was saturated or too slow
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    <T> T call(Callable<T> task) {
+        // Work that would time out in the queue is refused up front rather than left to run for nobody
+        if (estimatedWaitNanos() > TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+            rejectedCount.increment();
+            throw new ServiceUnavailableException(BUSY_MESSAGE);
+        }
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    hashNanos.add(System.nanoTime() - start);
+                    hashCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, e);
+        }
+        
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Removes a queued hash; one that is already running completes and its result is discarded
+            future.cancel(true);
+            rejectedCount.increment();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(BUSY_MESSAGE, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+    
+    /**
+     * Time until a hash submitted now would complete: the queue ahead of it spread over the pool, plus its own run
+     */
+    private long estimatedWaitNanos() {
+        long count = hashCount.sum();
+        long average = count == 0 ? initialHashNanos : hashNanos.sum() / count;
+        return (executor.getQueue().size() / poolSize + 1L) * average;
+    }
+    
+    private static boolean isBcryptHash(String storedPassword) {
+        return storedPassword.length() == 60
+                && (storedPassword.startsWith("$2a$") || storedPassword.startsWith("$2b$") || storedPassword.startsWith("$2y$"));
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.demo.services;
+
+import com.example.demo.helpers.TransactionHelper;
+import com.example.demo.models.RevokedToken;
+import com.example.demo.models.UserTokenRevocation;
+import com.example.demo.repositories.RevokedTokenRepository;
+import com.example.demo.repositories.UserTokenRevocationRepository;
+import com.example.demo.utils.BloomFilter;
+import com.example.demo.utils.JwtPrincipal;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Token revocation: single tokens by jti (logout) and all tokens of a user issued up to a point in time (logout everywhere).
+ * Revocations are stored in the database and mirrored in memory, so checking a token never touches the database.
+ * Token ids go through a Bloom filter first; only its rare positives are confirmed against the exact set.
+ * The in-memory copy is rebuilt periodically to pick up revocations made by other instances and to drop expired ones.
+ * Rebuilds run without holding any lock and publish the new copy with a single volatile write.
+ */
+@Service
+public class TokenRevocationService {
+    
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MIN_CAPACITY = 1024;
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Autowired
+    private UserTokenRevocationRepository userTokenRevocationRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${jwt.expiration}")
+    private Long expiration;
+    
+    private volatile RevocationSet revocations = new RevocationSet(0);
+    
+    // Revocations made locally while a refresh is loading, merged into the loaded copy; null when no refresh runs
+    private volatile RevocationSet inFlight;
+    
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    
+    /**
+     * Check whether a verified token has been revoked
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        RevocationSet current = revocations;
+        String tokenId = principal.getTokenId();
+        if (tokenId != null && current.filter.mightContain(tokenId) && current.tokenIds.contains(tokenId)) {
+            return true;
+        }
+        Instant revokedBefore = current.revokedBefore.get(principal.getUserId());
+        return revokedBefore != null
+                && principal.getIssuedAt() != null
+                && principal.getIssuedAt().isBefore(revokedBefore);
+    }
+    
+    /**
+     * Revoke a single token
+     * Tokens issued before tokens carried an id cannot be told apart, so all tokens of their user are revoked instead
+     */
+    public void revoke(JwtPrincipal principal) {
+        if (principal.getTokenId() == null) {
+            revokeAllForUser(principal.getUserId());
+            return;
+        }
+        Instant expiresAt = principal.getExpiresAt() != null
+                ? principal.getExpiresAt()
+                : Instant.now().plusMillis(expiration);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            revokedTokenRepository.save(new RevokedToken(principal.getTokenId(), principal.getUserId(), toLocalDateTime(expiresAt)));
+            TransactionHelper.runAfterCommit(() -> addTokenId(principal.getTokenId()));
+        });
+    }
+    
+    /**
+     * Revoke every token of a user issued before now
+     */
+    public void revokeAllForUser(Long userId) {
+        // Tokens carry their issue time in milliseconds, so a login right after this is not revoked
+        Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userTokenRevocationRepository.save(new UserTokenRevocation(userId, toLocalDateTime(revokedBefore)));
+            TransactionHelper.runAfterCommit(() -> addUserRevocation(userId, revokedBefore));
+        });
+    }
+    
+    /**
+     * Load revocations before the first request is served
+     */
+    @PostConstruct
+    void load() {
+        refresh();
+    }
+    
+    /**
+     * Rebuild the in-memory revocations from the database and purge expired rows.
+     * Skipped if another refresh is still running.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-ms:30000}", initialDelayString = "${auth.revocation.refresh-ms:30000}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Published before the load starts: a revocation that misses the load's snapshot is recorded here
+            RevocationSet recent = new RevocationSet(0);
+            inFlight = recent;
+            RevocationSet loaded;
+            try {
+                loaded = loadFromDatabase();
+            } catch (RuntimeException e) {
+                inFlight = null;
+                throw e;
+            }
+            if (loaded == null) {
+                inFlight = null;
+                return;
+            }
+            recent.mergeInto(loaded);
+            revocations = loaded;
+            inFlight = null;
+            // Revocations recorded between the first merge and the swap may have gone to the previous copy only
+            recent.mergeInto(loaded);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+    
+    private RevocationSet loadFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(expiration, ChronoUnit.MILLIS);
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            revokedTokenRepository.deleteExpired(now);
+            userTokenRevocationRepository.deleteOlderThan(cutoff);
+            
+            List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(now);
+            RevocationSet set = new RevocationSet(tokenIds.size());
+            tokenIds.forEach(set::addTokenId);
+            for (UserTokenRevocation revocation : userTokenRevocationRepository.findAll()) {
+                set.addUserRevocation(revocation.getUserId(), toInstant(revocation.getRevokedBefore()));
+            }
+            return set;
+        });
+    }
+    
+    /**
+     * Number of revoked token ids held in memory
+     */
+    public int getRevokedTokenCount() {
+        return revocations.tokenIds.size();
+    }
+    
+    // Recorded for a running refresh before the current copy is read, so one of the two reaches the copy refresh publishes
+    private void addTokenId(String tokenId) {
+        RevocationSet recent = inFlight;
+        if (recent != null) {
+            recent.addTokenId(tokenId);
+        }
+        revocations.addTokenId(tokenId);
+    }
+    
+    private void addUserRevocation(Long userId, Instant revokedBefore) {
+        RevocationSet recent = inFlight;
+        if (recent != null) {
+            recent.addUserRevocation(userId, revokedBefore);
+        }
+        revocations.addUserRevocation(userId, revokedBefore);
+    }
+    
+    private static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+    
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+    
+    /**
+     * One generation of in-memory revocations
+     */
+    private static final class RevocationSet {
+        private final BloomFilter filter;
+        private final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+        private final Map<Long, Instant> revokedBefore = new ConcurrentHashMap<>();
+        
+        private RevocationSet(int tokenCount) {
+            // Headroom for revocations made before the next refresh
+            this.filter = new BloomFilter(Math.max(MIN_CAPACITY, tokenCount * 2), FALSE_POSITIVE_RATE);
+        }
+        
+        private void addTokenId(String tokenId) {
+            // Exact set first, so a filter hit is never missing from it
+            tokenIds.add(tokenId);
+            filter.put(tokenId);
+        }
+        
+        private void addUserRevocation(Long userId, Instant instant) {
+            revokedBefore.merge(userId, instant, (a, b) -> a.isAfter(b) ? a : b);
+        }
+        
+        private void mergeInto(RevocationSet target) {
+            tokenIds.forEach(target::addTokenId);
+            revokedBefore.forEach(target::addUserRevocation);
+        }
+    }
+}
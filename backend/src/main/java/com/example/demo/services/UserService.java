@@ -1,10 +1,12 @@
 package com.example.demo.services;
 
+import com.example.demo.caches.UserProfileCache;
 import com.example.demo.models.User;
 import com.example.demo.repositories.UserRepository;
 import com.example.demo.responses.UserResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
@@ -20,16 +22,29 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private AvatarStorageService avatarStorageService;
+    
+    @Autowired
+    private AvatarThumbnailService avatarThumbnailService;
+    
+    @Autowired
+    private UserProfileCache userProfileCache;
+    
     /**
-     * Get user by ID
+     * Get user by ID, from the profile cache when possible
      * @param id user ID
-     * @return UserResponse
+     * @return UserResponse, shared with other callers, do not modify
      * @throws IllegalArgumentException if user not found
      */
+    // No transaction of its own: cache hits must not take a database connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-        return convertToResponse(user);
+        return userProfileCache.get(id, () -> {
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            return convertToResponse(user);
+        });
     }
     
     /**
@@ -42,9 +57,9 @@ public class UserService {
      * @param birthday birthday
      * @param location location
      * @param githubLink github link
-     * @param avatarUrl avatar URL
+     * @param avatarUrl avatar URL, or an image data URL to store
      * @return UserResponse
-     * @throws IllegalArgumentException if user not found
+     * @throws IllegalArgumentException if user not found or the avatar image is invalid
      */
     public UserResponse updateUser(Long id, String name, String gender, String nickname, 
                                    String occupation, LocalDate birthday, String location, 
@@ -75,10 +90,31 @@ public class UserService {
             user.setGithubLink(githubLink.trim().isEmpty() ? null : githubLink);
         }
         if (avatarUrl != null) {
-            user.setAvatarUrl(avatarUrl.trim().isEmpty() ? null : avatarUrl);
+            // Images go to the avatar store, the row keeps a short reference
+            user.setAvatarUrl(avatarStorageService.toReference(avatarUrl));
+            avatarThumbnailService.generateAfterCommit(user.getAvatarUrl());
         }
         
         user = userRepository.save(user);
+        userProfileCache.invalidateAfterCommit(id);
+        return convertToResponse(user);
+    }
+    
+    /**
+     * Replace the avatar of a user with an uploaded image
+     * @param id user ID
+     * @param image image bytes (PNG, JPEG, GIF or WebP)
+     * @return UserResponse
+     * @throws IllegalArgumentException if user not found or the image is invalid
+     */
+    public UserResponse updateAvatar(Long id, byte[] image) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        
+        user.setAvatarUrl(avatarStorageService.store(image));
+        avatarThumbnailService.generateAfterCommit(user.getAvatarUrl());
+        user = userRepository.save(user);
+        userProfileCache.invalidateAfterCommit(id);
         return convertToResponse(user);
     }
     
@@ -98,7 +134,9 @@ public class UserService {
         response.setBirthday(user.getBirthday());
         response.setLocation(user.getLocation());
         response.setGithubLink(user.getGithubLink());
-        response.setAvatarUrl(user.getAvatarUrl());
+        response.setAvatarUrl(avatarStorageService.toPublicUrl(user.getAvatarUrl()));
+        response.setAvatarThumbnailUrl(
+                avatarStorageService.toThumbnailUrl(user.getAvatarUrl(), AvatarThumbnailService.DEFAULT_SIZE));
         return response;
     }
 }
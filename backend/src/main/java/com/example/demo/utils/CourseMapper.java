@@ -3,10 +3,12 @@ package com.example.demo.utils;
 import com.example.demo.models.Chapter;
 import com.example.demo.models.Course;
 import com.example.demo.models.Video;
+import com.example.demo.projections.CourseSummaryView;
 import com.example.demo.requests.CreateCourseRequest;
 import com.example.demo.requests.UpdateCourseRequest;
 import com.example.demo.responses.ChapterResponse;
 import com.example.demo.responses.CourseResponse;
+import com.example.demo.responses.CourseSummaryResponse;
 import com.example.demo.responses.VideoResponse;
 
 import java.util.List;
@@ -46,6 +48,27 @@ public class CourseMapper {
         );
     }
     
+    /**
+     * Convert CourseSummaryView projection to CourseSummaryResponse
+     */
+    public static CourseSummaryResponse toSummaryResponse(CourseSummaryView summary) {
+        if (summary == null) {
+            return null;
+        }
+        
+        return new CourseSummaryResponse(
+                summary.getId(),
+                summary.getTitle(),
+                summary.getSubtitle(),
+                summary.getImageUrl(),
+                summary.getPriceText(),
+                summary.getIsFeatured(),
+                summary.getChapterCount(),
+                summary.getVideoCount(),
+                summary.getTotalDuration()
+        );
+    }
+    
     /**
      * Convert Chapter entity to ChapterResponse
      */
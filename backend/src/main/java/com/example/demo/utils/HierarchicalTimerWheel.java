@@ -0,0 +1,133 @@
+package com.example.demo.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel: four levels of 64 slots, each level 64 times coarser than the one below.
+ * Scheduling is O(1) and advancing touches only the slots whose time has come, so the cost does not
+ * depend on how many timers are pending. Deadlines past the span of the wheel are parked in the top
+ * level and re-placed until they come into range. Thread-safe.
+ */
+public class HierarchicalTimerWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    private final ArrayDeque<Entry<T>>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMillis resolution of the wheel
+     * @param startMillis current time, the first tick the wheel will process
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimerWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        this.wheels = new ArrayDeque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Schedule an item to fire once the wheel has advanced past the deadline.
+     * Deadlines already passed fire on the next advance.
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        // Round up so an item never fires before its deadline
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(new Entry<>(item, deadlineTick));
+        size++;
+    }
+
+    /**
+     * Advance the wheel to the given time
+     * @return items whose deadline is at or before nowMillis, in deadline order per tick
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> due = new ArrayList<>();
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & SLOT_MASK);
+            if (index == 0) {
+                cascade(1);
+            }
+            ArrayDeque<Entry<T>> slot = wheels[0][index];
+            int count = slot.size();
+            for (int i = 0; i < count; i++) {
+                Entry<T> entry = slot.poll();
+                if (entry.deadlineTick > currentTick) {
+                    // Parked beyond the span of the wheel, not due yet
+                    place(entry);
+                } else {
+                    due.add(entry.item);
+                    size--;
+                }
+            }
+            currentTick++;
+        }
+        return due;
+    }
+
+    /**
+     * Number of items scheduled and not yet fired
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Move the entries of the current slot of a level down to the levels below
+     */
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        ArrayDeque<Entry<T>> slot = wheels[level][index];
+        int count = slot.size();
+        for (int i = 0; i < count; i++) {
+            place(slot.poll());
+        }
+        if (index == 0) {
+            cascade(level + 1);
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long placeTick = Math.max(entry.deadlineTick, currentTick);
+        if (placeTick - currentTick >= MAX_SPAN) {
+            placeTick = currentTick + MAX_SPAN - 1;
+        }
+        long delta = placeTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((placeTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        wheels[level][index].add(entry);
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
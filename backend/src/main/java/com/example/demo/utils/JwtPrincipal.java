@@ -0,0 +1,40 @@
+package com.example.demo.utils;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a verified JWT token
+ */
+public final class JwtPrincipal {
+
+    private final Long userId;
+    private final String tokenId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    /**
+     * @param tokenId the jti claim, null for tokens issued before tokens carried one
+     */
+    public JwtPrincipal(Long userId, String tokenId, Instant issuedAt, Instant expiresAt) {
+        this.userId = userId;
+        this.tokenId = tokenId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
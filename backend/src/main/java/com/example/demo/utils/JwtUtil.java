@@ -1,27 +1,63 @@
 package com.example.demo.utils;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Utility class for JWT token operations
+ * The signing key and parser are built once at startup, both are thread-safe
  */
 @Component
 public class JwtUtil {
     
+    /**
+     * Issue time in epoch milliseconds; the standard iat claim only has second precision
+     */
+    static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+    
     @Value("${jwt.secret}")
     private String secret;
     
     @Value("${jwt.expiration}")
     private Long expiration;
     
+    private SecretKey key;
+    
+    private JwtParser parser;
+    
+    public JwtUtil() {
+    }
+    
+    /**
+     * Create a ready-to-use instance outside the Spring context, e.g. in tests and benchmarks
+     */
+    public JwtUtil(String secret, Long expiration) {
+        this.secret = secret;
+        this.expiration = expiration;
+        init();
+    }
+    
+    @PostConstruct
+    void init() {
+        key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+    }
+    
     /**
      * Generate JWT token for user
      * @param userId user ID
@@ -31,32 +67,53 @@ public class JwtUtil {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
         
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        
         return Jwts.builder()
+                .id(UUID.randomUUID().toString()) // jti, lets a single token be revoked
                 .subject(String.valueOf(userId))
                 .issuedAt(now)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now.getTime())
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
     
     /**
-     * Validate JWT token
+     * Verify a JWT token, parsing it exactly once
      * @param token JWT token string
-     * @return true if token is valid, false otherwise
+     * @return the verified principal, empty if the token is invalid or expired
      */
-    public boolean validateToken(String token) {
+    @Timed(value = "jwt.verification", description = "Signature verification and claim parsing of tokens missing from the cache")
+    public Optional<JwtPrincipal> verifyToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            Date expiryDate = claims.getExpiration();
+            return Optional.of(new JwtPrincipal(
+                    Long.parseLong(claims.getSubject()),
+                    claims.getId(),
+                    issuedAt(claims),
+                    expiryDate == null ? null : expiryDate.toInstant()));
         } catch (Exception e) {
-            return false;
+            return Optional.empty();
+        }
+    }
+    
+    private static Instant issuedAt(Claims claims) {
+        Long issuedMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedMillis != null) {
+            return Instant.ofEpochMilli(issuedMillis);
         }
+        // Tokens issued before the millisecond claim was added
+        Date issuedDate = claims.getIssuedAt();
+        return issuedDate == null ? null : issuedDate.toInstant();
+    }
+    
+    /**
+     * Validate JWT token
+     * @param token JWT token string
+     * @return true if token is valid, false otherwise
+     */
+    public boolean validateToken(String token) {
+        return verifyToken(token).isPresent();
     }
     
     /**
@@ -65,16 +122,8 @@ public class JwtUtil {
      * @return user ID
      */
     public Long getUserIdFromToken(String token) {
-        try {
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return Long.parseLong(claims.getSubject());
-        } catch (Exception e) {
-            return null;
-        }
+        return verifyToken(token)
+                .map(JwtPrincipal::getUserId)
+                .orElse(null);
     }
 }
@@ -0,0 +1,62 @@
+package com.example.demo.utils;
+
+import com.example.demo.models.Order;
+import com.example.demo.projections.OrderView;
+import com.example.demo.responses.OrderResponse;
+
+import java.time.LocalDateTime;
+
+/**
+ * Utility class for converting orders to DTOs.
+ * Pending orders past their deadline are reported as cancelled; the expiry sweep persists that later.
+ */
+public class OrderMapper {
+    
+    /**
+     * Convert Order entity to OrderResponse
+     */
+    public static OrderResponse toResponse(Order order, LocalDateTime now) {
+        if (order == null) {
+            return null;
+        }
+        
+        boolean expired = order.isExpiredAt(now);
+        return new OrderResponse(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getUser().getId(),
+                order.getUser().getName(),
+                order.getCourse().getId(),
+                order.getCourse().getTitle(),
+                expired ? "CANCELLED" : order.getStatus(),
+                order.getPaymentDeadline(),
+                order.getPaymentDate(),
+                expired ? Order.EXPIRED_REMARKS : order.getRemarks(),
+                order.getCreatedAt()
+        );
+    }
+    
+    /**
+     * Convert OrderView projection to OrderResponse
+     */
+    public static OrderResponse toResponse(OrderView order, LocalDateTime now) {
+        if (order == null) {
+            return null;
+        }
+        
+        boolean expired = Order.isExpired(order.getStatus(), order.getPaymentDeadline(), now);
+        return new OrderResponse(
+                order.getId(),
+                order.getOrderNumber(),
+                order.getUserId(),
+                order.getUserName(),
+                order.getCourseId(),
+                order.getCourseTitle(),
+                expired ? "CANCELLED" : order.getStatus(),
+                order.getPaymentDeadline(),
+                order.getPaymentDate(),
+                expired ? Order.EXPIRED_REMARKS : order.getRemarks(),
+                order.getCreatedAt()
+        );
+    }
+}
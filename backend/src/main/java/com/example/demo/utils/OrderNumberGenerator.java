@@ -0,0 +1,159 @@
+package com.example.demo.utils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates order numbers: yyyyMMddHHmmss in UTC + 1 base-36 node id char + 3 base-36 sequence chars (18 chars total).
+ * Numbers are unique per node without locking: a single CAS advances a packed (second, sequence) state.
+ * When the sequence of a second is exhausted, or the clock goes backwards, the generator keeps counting
+ * into the following second instead of waiting, so the timestamp part may briefly run ahead of the clock.
+ * That run-ahead is lost on restart, so callers {@link #seed} the generator with the highest persisted number.
+ */
+@Component
+public class OrderNumberGenerator {
+
+    static final int SEQUENCE_LIMIT = 36 * 36 * 36;
+
+    private static final int SEQUENCE_BITS = 16;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_LENGTH = 14;
+    private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final Clock clock;
+    private final ZoneId zone;
+    private final char nodeChar;
+
+    // (epochSecond << 16) | sequence of the last issued number
+    private final AtomicLong state = new AtomicLong();
+
+    // Timestamp chars of the most recently formatted second
+    private volatile FormattedSecond formattedSecond = new FormattedSecond(Long.MIN_VALUE, null);
+
+    @Autowired
+    public OrderNumberGenerator(@Value("${orders.number.node-id:0}") int nodeId) {
+        // UTC has no repeated local hour when daylight saving time ends
+        this(Clock.systemUTC(), nodeId);
+    }
+
+    OrderNumberGenerator(Clock clock, int nodeId) {
+        if (nodeId < 0 || nodeId >= DIGITS.length) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + (DIGITS.length - 1));
+        }
+        this.clock = clock;
+        this.zone = clock.getZone();
+        this.nodeChar = DIGITS[nodeId];
+    }
+
+    /**
+     * Generate the next order number
+     */
+    public String next() {
+        long nowSecond = Math.floorDiv(clock.millis(), 1000);
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long second = current >>> SEQUENCE_BITS;
+            if (nowSecond > second) {
+                next = nowSecond << SEQUENCE_BITS;
+            } else {
+                long sequence = (current & SEQUENCE_MASK) + 1;
+                next = sequence < SEQUENCE_LIMIT
+                        ? (second << SEQUENCE_BITS) | sequence
+                        : (second + 1) << SEQUENCE_BITS;
+            }
+        } while (!state.compareAndSet(current, next));
+
+        return format(next >>> SEQUENCE_BITS, (int) (next & SEQUENCE_MASK));
+    }
+
+    /**
+     * Continue numbering after a previously issued number, typically the highest one persisted.
+     * The number may come from another node, so numbering resumes in the second after it.
+     * @throws IllegalArgumentException if the number does not start with a yyyyMMddHHmmss timestamp
+     */
+    public void seed(String issued) {
+        long epochSecond = parseEpochSecond(issued);
+        long seeded = (epochSecond << SEQUENCE_BITS) | (SEQUENCE_LIMIT - 1);
+        state.accumulateAndGet(seeded, Math::max);
+    }
+
+    private long parseEpochSecond(String number) {
+        if (number == null || number.length() < TIMESTAMP_LENGTH) {
+            throw new IllegalArgumentException("Invalid order number: " + number);
+        }
+        try {
+            LocalDateTime time = LocalDateTime.of(
+                    readDigits(number, 0, 4), readDigits(number, 4, 2), readDigits(number, 6, 2),
+                    readDigits(number, 8, 2), readDigits(number, 10, 2), readDigits(number, 12, 2));
+            return time.atZone(zone).toEpochSecond();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid order number: " + number);
+        }
+    }
+
+    private static int readDigits(String number, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid order number: " + number);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private String format(long epochSecond, int sequence) {
+        char[] chars = new char[TIMESTAMP_LENGTH + 4];
+        System.arraycopy(timestampChars(epochSecond), 0, chars, 0, TIMESTAMP_LENGTH);
+        chars[TIMESTAMP_LENGTH] = nodeChar;
+        chars[TIMESTAMP_LENGTH + 1] = DIGITS[sequence / (36 * 36)];
+        chars[TIMESTAMP_LENGTH + 2] = DIGITS[sequence / 36 % 36];
+        chars[TIMESTAMP_LENGTH + 3] = DIGITS[sequence % 36];
+        return new String(chars);
+    }
+
+    private char[] timestampChars(long epochSecond) {
+        FormattedSecond cached = formattedSecond;
+        if (cached.epochSecond == epochSecond) {
+            return cached.chars;
+        }
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+        char[] chars = new char[TIMESTAMP_LENGTH];
+        writeDigits(chars, 0, time.getYear(), 4);
+        writeDigits(chars, 4, time.getMonthValue(), 2);
+        writeDigits(chars, 6, time.getDayOfMonth(), 2);
+        writeDigits(chars, 8, time.getHour(), 2);
+        writeDigits(chars, 10, time.getMinute(), 2);
+        writeDigits(chars, 12, time.getSecond(), 2);
+        formattedSecond = new FormattedSecond(epochSecond, chars);
+        return chars;
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static final class FormattedSecond {
+        private final long epochSecond;
+        private final char[] chars;
+
+        private FormattedSecond(long epochSecond, char[] chars) {
+            this.epochSecond = epochSecond;
+            this.chars = chars;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.demo.utils;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyed token bucket rate limiter, lock-free.
+ * Each bucket is a single AtomicLong holding the theoretical arrival time of the next request (GCRA),
+ * which behaves like a bucket of {@code capacity} tokens refilled at a steady rate.
+ * A bucket whose arrival time has passed is full and indistinguishable from a new one, so idle buckets
+ * can be dropped at any time; the number of buckets is capped at {@code maxKeys}.
+ * Buckets that still owe tokens are never dropped, since that would reset a throttled key: once the cap is reached
+ * and nothing is idle, new keys share a fixed set of overflow buckets chosen by hash, so a flood of fresh keys
+ * can neither grow the map nor lock out every new client.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int OVERFLOW_BUCKETS = 1024;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    // Shared by keys that arrive while the map is full; a key always lands on the same one
+    private final AtomicLong[] overflow = new AtomicLong[OVERFLOW_BUCKETS];
+
+    // Earliest time any held bucket can be idle, as of the last eviction; no eviction can free a slot before it
+    private volatile long nextIdleNanos = Long.MIN_VALUE;
+
+    /**
+     * @param capacity requests allowed in a burst
+     * @param permitsPerSecond steady refill rate
+     * @param maxKeys maximum number of buckets held
+     */
+    public TokenBucketRateLimiter(int capacity, double permitsPerSecond, int maxKeys) {
+        this(capacity, permitsPerSecond, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(int capacity, double permitsPerSecond, int maxKeys, LongSupplier nanoClock) {
+        if (capacity <= 0 || permitsPerSecond <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("capacity, permitsPerSecond and maxKeys must be positive");
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        for (int i = 0; i < overflow.length; i++) {
+            overflow[i] = new AtomicLong(now);
+        }
+    }
+
+    /**
+     * Take one token from the bucket of the key
+     * @return 0 if the request is allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evict(now);
+            }
+            bucket = buckets.size() < maxKeys
+                    ? buckets.computeIfAbsent(key, k -> new AtomicLong(now))
+                    : overflowBucket(key);
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long theoretical = Math.max(arrival, now);
+            long wait = theoretical - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, theoretical + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drop buckets that have refilled completely
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        long nextIdle = Long.MAX_VALUE;
+        Iterator<AtomicLong> iterator = buckets.values().iterator();
+        while (iterator.hasNext()) {
+            long arrival = iterator.next().get();
+            if (arrival <= now) {
+                iterator.remove();
+            } else {
+                nextIdle = Math.min(nextIdle, arrival);
+            }
+        }
+        nextIdleNanos = nextIdle;
+    }
+
+    /**
+     * Number of buckets held
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong overflowBucket(String key) {
+        // Fibonacci hashing: the top bits of the product spread similar keys such as neighbouring addresses
+        int index = (key.hashCode() * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(OVERFLOW_BUCKETS));
+        return overflow[index];
+    }
+
+    private void evict(long now) {
+        // Nothing has refilled since the last scan, so a full map of active buckets is not rescanned per request
+        if (now < nextIdleNanos) {
+            return;
+        }
+        // One thread evicts at a time, the others carry on
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictIdle();
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
@@ -21,3 +21,13 @@ BEGIN
         RAISE NOTICE 'Column avatar_url is already TEXT type or does not exist';
     END IF;
 END $$;
+
+-- Indexes backing the keyset pagination of the order listings
+CREATE INDEX IF NOT EXISTS idx_orders_user_created ON orders (user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_course_created ON orders (course_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_deadline ON orders (status, payment_deadline);
+
+-- Avatars now live in the avatar store (avatars.storage-dir), users.avatar_url only keeps a short
+-- reference such as /api/avatars/{sha256}.png. Inline data URLs are moved out at startup by
+-- AvatarMigrationService; this only reports how many are left.
+SELECT COUNT(*) AS inline_avatars FROM users WHERE avatar_url LIKE 'data:%';
@@ -0,0 +1,136 @@
+package com.example.demo.caches;
+
+import com.example.demo.models.Course;
+import com.example.demo.repositories.ChapterRepository;
+import com.example.demo.repositories.CourseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CourseCatalogCache
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseCatalogCacheTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private ChapterRepository chapterRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private Executor reloadExecutor;
+
+    @InjectMocks
+    private CourseCatalogCache courseCatalogCache;
+
+    private Course featuredCourse;
+    private Course regularCourse;
+
+    @BeforeEach
+    void setUp() {
+        featuredCourse = new Course();
+        featuredCourse.setId(1L);
+        featuredCourse.setTitle("Featured Course");
+        featuredCourse.setIsFeatured(true);
+
+        regularCourse = new Course();
+        regularCourse.setId(2L);
+        regularCourse.setTitle("Regular Course");
+        regularCourse.setIsFeatured(false);
+    }
+
+    @Test
+    void shouldLoadSnapshotOnlyOnce() {
+        // Given
+        when(courseRepository.findAllWithChapters()).thenReturn(Arrays.asList(featuredCourse, regularCourse));
+
+        // When
+        CourseCatalogSnapshot first = courseCatalogCache.getSnapshot();
+        CourseCatalogSnapshot second = courseCatalogCache.getSnapshot();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(2, first.getCourses().size());
+        assertEquals(1, first.getFeaturedCourses().size());
+        assertEquals("Featured Course", first.getFeaturedCourses().get(0).getTitle());
+        verify(courseRepository, times(1)).findAllWithChapters();
+        verify(chapterRepository, times(1)).findAllWithVideos();
+    }
+
+    @Test
+    void shouldSwapInNewVersionOnRefresh() {
+        // Given
+        when(courseRepository.findAllWithChapters())
+                .thenReturn(List.of(featuredCourse))
+                .thenReturn(Arrays.asList(featuredCourse, regularCourse));
+        CourseCatalogSnapshot before = courseCatalogCache.getSnapshot();
+
+        // When
+        courseCatalogCache.refreshAfterCommit();
+        CourseCatalogSnapshot after = courseCatalogCache.getSnapshot();
+
+        // Then
+        assertTrue(after.getVersion() > before.getVersion());
+        assertEquals(1, before.getCourses().size());
+        assertEquals(2, after.getCourses().size());
+        assertTrue(after.findById(2L).isPresent());
+        assertFalse(before.findById(2L).isPresent());
+    }
+
+    @Test
+    void shouldReloadOnExecutorAfterWriterCommits() {
+        // Given
+        when(courseRepository.findAllWithChapters())
+                .thenReturn(List.of(featuredCourse))
+                .thenReturn(Arrays.asList(featuredCourse, regularCourse));
+        CourseCatalogSnapshot before = courseCatalogCache.getSnapshot();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        try {
+            courseCatalogCache.refreshAfterCommit();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        // Not reloaded on the committing thread, which still holds its connection
+        ArgumentCaptor<Runnable> reload = ArgumentCaptor.forClass(Runnable.class);
+        verify(reloadExecutor).execute(reload.capture());
+        assertSame(before, courseCatalogCache.getSnapshot());
+        reload.getValue().run();
+        assertEquals(2, courseCatalogCache.getSnapshot().getCourses().size());
+    }
+
+    @Test
+    void shouldNotAllowSnapshotModification() {
+        // Given
+        when(courseRepository.findAllWithChapters()).thenReturn(Arrays.asList(featuredCourse, regularCourse));
+
+        // When
+        CourseCatalogSnapshot snapshot = courseCatalogCache.getSnapshot();
+
+        // Then
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getCourses().add(new Course()));
+    }
+}
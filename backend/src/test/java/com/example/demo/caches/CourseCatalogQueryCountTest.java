@@ -0,0 +1,176 @@
+package com.example.demo.caches;
+
+import com.example.demo.models.Chapter;
+import com.example.demo.models.Course;
+import com.example.demo.models.Video;
+import com.example.demo.repositories.CourseRepository;
+import com.example.demo.responses.CourseSummaryResponse;
+import com.example.demo.services.CourseService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression test for the catalog fetch plan: the number of SQL statements
+ * must not grow with the number of courses, chapters or videos
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:catalogquerycount",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.demo.caches.CourseCatalogQueryCountTest$StatementCounter"
+})
+class CourseCatalogQueryCountTest {
+
+    @Autowired
+    private CourseCatalogCache courseCatalogCache;
+
+    @Autowired
+    private CourseResponseCache courseResponseCache;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> courseRepository.deleteAll());
+    }
+
+    @Test
+    void shouldLoadCatalogWithConstantStatementCount() {
+        // Given
+        seedCourses(2);
+        int smallCatalog = countStatements(() -> courseCatalogCache.reload());
+        seedCourses(20);
+
+        // When
+        int largeCatalog = countStatements(() -> courseCatalogCache.reload());
+
+        // Then
+        assertEquals(3, smallCatalog);
+        assertEquals(smallCatalog, largeCatalog);
+        assertEquals(22, courseCatalogCache.getSnapshot().getCourses().size());
+        assertEquals(22, courseCatalogCache.getSnapshot().getCourseSummaries().size());
+    }
+
+    @Test
+    void shouldLoadWholeCourseTree() {
+        // Given
+        seedCourses(3);
+
+        // When
+        CourseCatalogSnapshot snapshot = courseCatalogCache.reload();
+
+        // Then
+        Course course = snapshot.getCourses().get(0);
+        assertEquals(3, course.getChapters().size());
+        assertEquals(2, course.getChapters().get(0).getVideos().size());
+    }
+
+    @Test
+    void shouldComputeSummaryCountsInSql() {
+        // Given
+        seedCourses(2);
+
+        // When
+        CourseSummaryResponse summary = courseCatalogCache.reload().getCourseSummaries().get(0);
+
+        // Then
+        assertEquals("Course 0", summary.getTitle());
+        assertEquals(3L, summary.getChapterCount());
+        assertEquals(6L, summary.getVideoCount());
+        assertEquals(360L, summary.getTotalDuration());
+    }
+
+    @Test
+    void shouldServeCatalogEndpointsWithoutStatements() {
+        // Given
+        seedCourses(5);
+        courseCatalogCache.reload();
+        Long courseId = courseCatalogCache.getSnapshot().getCourses().get(0).getId();
+
+        // When
+        int statements = countStatements(() -> {
+            courseService.getAllCourses();
+            courseService.getFeaturedCourses();
+            courseService.getCourseById(courseId);
+            courseResponseCache.getCourseList();
+            courseResponseCache.getCourseSummaries();
+            courseResponseCache.getFeaturedCourses();
+            courseResponseCache.getCourse(courseId);
+        });
+
+        // Then
+        assertEquals(0, statements);
+    }
+
+    private void seedCourses(int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                Course course = new Course();
+                course.setTitle("Course " + i);
+                course.setIsFeatured(i % 2 == 0);
+                for (int c = 0; c < 3; c++) {
+                    Chapter chapter = new Chapter();
+                    chapter.setTitle("Chapter " + c);
+                    chapter.setOrderIndex(c);
+                    chapter.setCourse(course);
+                    for (int v = 0; v < 2; v++) {
+                        Video video = new Video();
+                        video.setTitle("Video " + v);
+                        video.setVideoUrl("https://example.com/" + i + "/" + c + "/" + v + ".m3u8");
+                        video.setOrderIndex(v);
+                        video.setDuration(60);
+                        video.setChapter(chapter);
+                        chapter.getVideos().add(video);
+                    }
+                    course.getChapters().add(chapter);
+                }
+                courseRepository.save(course);
+            }
+        });
+    }
+
+    private int countStatements(Runnable action) {
+        StatementCounter.reset();
+        action.run();
+        return StatementCounter.count();
+    }
+
+    /**
+     * Counts the SQL statements Hibernate prepares on the current thread,
+     * so background jobs running in parallel do not skew the numbers
+     */
+    public static class StatementCounter implements StatementInspector {
+
+        private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+        @Override
+        public String inspect(String sql) {
+            COUNT.get()[0]++;
+            return sql;
+        }
+
+        static void reset() {
+            COUNT.get()[0] = 0;
+        }
+
+        static int count() {
+            return COUNT.get()[0];
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.caches;
+
+import com.example.demo.helpers.PageCursor;
+import com.example.demo.models.Chapter;
+import com.example.demo.models.Course;
+import com.example.demo.models.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CourseResponseCache
+ */
+@ExtendWith(MockitoExtension.class)
+class CourseResponseCacheTest {
+
+    @Mock
+    private CourseCatalogCache courseCatalogCache;
+
+    @InjectMocks
+    private CourseResponseCache courseResponseCache;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private Course featuredCourse;
+    private Course regularCourse;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(courseResponseCache, "jsonMapper", jsonMapper);
+
+        featuredCourse = new Course();
+        featuredCourse.setId(1L);
+        featuredCourse.setTitle("Featured Course");
+        featuredCourse.setDescription("A".repeat(300));
+        featuredCourse.setIsFeatured(true);
+
+        Chapter chapter = new Chapter();
+        chapter.setId(10L);
+        chapter.setTitle("Chapter 1");
+        chapter.setOrderIndex(1);
+        Video video = new Video();
+        video.setId(100L);
+        video.setTitle("Video 1");
+        video.setVideoUrl("https://example.com/video.m3u8");
+        video.setDuration(120);
+        chapter.setVideos(List.of(video));
+        featuredCourse.setChapters(List.of(chapter));
+
+        regularCourse = new Course();
+        regularCourse.setId(2L);
+        regularCourse.setTitle("Regular Course");
+        regularCourse.setIsFeatured(false);
+    }
+
+    @Test
+    void shouldRenderCourseListOnce() {
+        // Given
+        when(courseCatalogCache.getSnapshot())
+                .thenReturn(new CourseCatalogSnapshot(1L, List.of(featuredCourse, regularCourse), List.of()));
+
+        // When
+        RenderedResponse first = courseResponseCache.getCourseList();
+        RenderedResponse second = courseResponseCache.getCourseList();
+
+        // Then
+        assertSame(first, second);
+        JsonNode json = jsonMapper.readTree(first.getBody());
+        assertTrue(json.get("success").asBoolean());
+        assertEquals("Successfully retrieved course list", json.get("message").asString());
+        assertEquals(2, json.get("data").size());
+        assertEquals("Video 1", json.get("data").get(0).get("chapters").get(0).get("videos").get(0).get("title").asString());
+    }
+
+    @Test
+    void shouldRenderGzipBodyMatchingPlainBody() throws IOException {
+        // Given
+        when(courseCatalogCache.getSnapshot())
+                .thenReturn(new CourseCatalogSnapshot(1L, List.of(featuredCourse, regularCourse), List.of()));
+
+        // When
+        RenderedResponse rendered = courseResponseCache.getCourseList();
+
+        // Then
+        assertTrue(rendered.hasGzipBody());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(rendered.getGzipBody()))) {
+            assertArrayEquals(rendered.getBody(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void shouldRenderFeaturedAndPerIdBodies() {
+        // Given
+        when(courseCatalogCache.getSnapshot())
+                .thenReturn(new CourseCatalogSnapshot(1L, List.of(featuredCourse, regularCourse), List.of()));
+
+        // When
+        JsonNode featured = jsonMapper.readTree(courseResponseCache.getFeaturedCourses().getBody());
+        JsonNode course = jsonMapper.readTree(courseResponseCache.getCourse(2L).getBody());
+        JsonNode notFound = jsonMapper.readTree(courseResponseCache.getCourseNotFound().getBody());
+
+        // Then
+        assertEquals(1, featured.get("data").size());
+        assertEquals("Featured Course", featured.get("data").get(0).get("title").asString());
+        assertEquals("Regular Course", course.get("data").get("title").asString());
+        assertNull(courseResponseCache.getCourse(999L));
+        assertFalse(notFound.get("success").asBoolean());
+    }
+
+    @Test
+    void shouldRerenderWhenCatalogVersionChanges() {
+        // Given
+        when(courseCatalogCache.getSnapshot())
+                .thenReturn(new CourseCatalogSnapshot(1L, List.of(featuredCourse), List.of()))
+                .thenReturn(new CourseCatalogSnapshot(2L, List.of(featuredCourse, regularCourse), List.of()));
+
+        // When
+        RenderedResponse before = courseResponseCache.getCourseList();
+        RenderedResponse after = courseResponseCache.getCourseList();
+
+        // Then
+        assertNotSame(before, after);
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertEquals(1, jsonMapper.readTree(before.getBody()).get("data").size());
+        assertEquals(2, jsonMapper.readTree(after.getBody()).get("data").size());
+    }
+
+    @Test
+    void shouldRenderCoursePagesByIdKeyset() {
+        // Given
+        when(courseCatalogCache.getSnapshot())
+                .thenReturn(new CourseCatalogSnapshot(1L, List.of(featuredCourse, regularCourse), List.of()));
+
+        // When
+        CoursePage first = courseResponseCache.getCoursePage(false, null, 1);
+        Long afterId = PageCursor.decode(first.getNextCursor()).getId();
+        CoursePage second = courseResponseCache.getCoursePage(false, afterId, 1);
+
+        // Then
+        JsonNode firstJson = jsonMapper.readTree(first.render().getBody());
+        JsonNode secondJson = jsonMapper.readTree(second.render().getBody());
+        assertEquals(1L, afterId);
+        assertEquals("Featured Course", firstJson.get("data").get(0).get("title").asString());
+        assertEquals("Regular Course", secondJson.get("data").get(0).get("title").asString());
+        assertFalse(second.hasNext());
+        assertNotEquals(first.getEtag(), second.getEtag());
+    }
+}
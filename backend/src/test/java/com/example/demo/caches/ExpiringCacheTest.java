@@ -0,0 +1,77 @@
+package com.example.demo.caches;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ExpiringCache
+ */
+class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    @Test
+    void shouldExpireEntriesAtTheirDeadline() {
+        // Given
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 60_000, now::get);
+        cache.put("key", "value", now.get() + 1000);
+
+        // When
+        String beforeDeadline = cache.get("key");
+        now.addAndGet(1000);
+        String atDeadline = cache.get("key");
+
+        // Then
+        assertEquals("value", beforeDeadline);
+        assertNull(atDeadline);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldCapDeadlineAtTtl() {
+        // Given
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, 500, now::get);
+        cache.put("key", "value", now.get() + 60_000);
+
+        // When
+        now.addAndGet(500);
+
+        // Then
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    void shouldStayWithinMaxSize() {
+        // Given
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(100, 60_000, now::get);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+
+        // Then
+        assertTrue(cache.size() <= 100);
+        assertTrue(cache.getEvictionCount() >= 900);
+    }
+
+    @Test
+    void shouldInvalidateMatchingEntries() {
+        // Given
+        ExpiringCache<String, Long> cache = new ExpiringCache<>(10, 60_000, now::get);
+        cache.put("a", 1L);
+        cache.put("b", 2L);
+
+        // When
+        cache.invalidateIf(value -> value == 1L);
+
+        // Then
+        assertNull(cache.get("a"));
+        assertEquals(2L, cache.get("b"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.caches;
+
+import com.example.demo.responses.UserResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserProfileCache
+ */
+class UserProfileCacheTest {
+
+    private UserProfileCache userProfileCache;
+
+    @BeforeEach
+    void setUp() {
+        userProfileCache = new UserProfileCache(100, 60_000);
+    }
+
+    @Test
+    void shouldLoadProfileOnlyOnce() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        UserResponse first = userProfileCache.get(1L, () -> profile(1L, "v" + loads.incrementAndGet()));
+        UserResponse second = userProfileCache.get(1L, () -> profile(1L, "v" + loads.incrementAndGet()));
+
+        // Then
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, userProfileCache.getHitCount());
+        assertEquals(1, userProfileCache.getMissCount());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidation() {
+        // Given
+        userProfileCache.get(1L, () -> profile(1L, "old"));
+
+        // When
+        userProfileCache.invalidate(1L);
+        UserResponse reloaded = userProfileCache.get(1L, () -> profile(1L, "new"));
+
+        // Then
+        assertEquals("new", reloaded.getName());
+    }
+
+    @Test
+    void shouldNotKeepProfileLoadedDuringInvalidation() {
+        // Given: the profile is updated while it is being loaded
+        UserResponse loaded = userProfileCache.get(1L, () -> {
+            userProfileCache.invalidate(1L);
+            return profile(1L, "stale");
+        });
+
+        // When
+        UserResponse next = userProfileCache.get(1L, () -> profile(1L, "fresh"));
+
+        // Then
+        assertEquals("stale", loaded.getName());
+        assertEquals("fresh", next.getName());
+    }
+
+    @Test
+    void shouldNotCacheFailedLoads() {
+        // When
+        assertThrows(IllegalArgumentException.class, () -> userProfileCache.get(1L, () -> {
+            throw new IllegalArgumentException("User not found");
+        }));
+
+        // Then
+        assertEquals(0, userProfileCache.size());
+    }
+
+    private UserResponse profile(Long id, String name) {
+        UserResponse response = new UserResponse();
+        response.setId(id);
+        response.setName(name);
+        return response;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.caches;
+
+import com.example.demo.utils.JwtPrincipal;
+import com.example.demo.utils.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for VerifiedTokenCache
+ */
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(100, 60_000);
+        ReflectionTestUtils.setField(verifiedTokenCache, "jwtUtil", jwtUtil);
+    }
+
+    @Test
+    void shouldVerifyTokenOnlyOnce() {
+        // Given
+        JwtPrincipal principal = new JwtPrincipal(42L, "jti", Instant.now(), Instant.now().plusSeconds(3600));
+        when(jwtUtil.verifyToken("token")).thenReturn(Optional.of(principal));
+
+        // When
+        Optional<JwtPrincipal> first = verifiedTokenCache.verify("token");
+        Optional<JwtPrincipal> second = verifiedTokenCache.verify("token");
+
+        // Then
+        assertEquals(42L, first.orElseThrow().getUserId());
+        assertSame(first.get(), second.orElseThrow());
+        verify(jwtUtil, times(1)).verifyToken("token");
+        assertEquals(1, verifiedTokenCache.getHitCount());
+        assertEquals(1, verifiedTokenCache.getMissCount());
+    }
+
+    @Test
+    void shouldNotCacheInvalidTokens() {
+        // Given
+        when(jwtUtil.verifyToken("bad")).thenReturn(Optional.empty());
+
+        // When
+        verifiedTokenCache.verify("bad");
+        verifiedTokenCache.verify("bad");
+
+        // Then
+        verify(jwtUtil, times(2)).verifyToken("bad");
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void shouldNotCacheExpiredTokens() {
+        // Given
+        JwtPrincipal principal = new JwtPrincipal(42L, "jti", Instant.now(), Instant.now().minusSeconds(1));
+        when(jwtUtil.verifyToken("token")).thenReturn(Optional.of(principal));
+
+        // When
+        verifiedTokenCache.verify("token");
+
+        // Then
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void shouldForgetTokensOfUser() {
+        // Given
+        when(jwtUtil.verifyToken("token")).thenReturn(Optional.of(new JwtPrincipal(42L, "jti", Instant.now(), Instant.now().plusSeconds(3600))));
+        verifiedTokenCache.verify("token");
+
+        // When
+        verifiedTokenCache.invalidateUser(42L);
+        verifiedTokenCache.verify("token");
+
+        // Then
+        verify(jwtUtil, times(2)).verifyToken("token");
+    }
+}
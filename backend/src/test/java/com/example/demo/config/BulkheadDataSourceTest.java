@@ -0,0 +1,86 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BulkheadDataSource
+ */
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private BulkheadDataSource bulkheadDataSource;
+
+    @BeforeEach
+    void setUp() {
+        bulkheadDataSource = new BulkheadDataSource(target, 2, 50);
+    }
+
+    @Test
+    void shouldRejectCallersBeyondPermitsAfterTimeout() throws Exception {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        bulkheadDataSource.getConnection();
+        bulkheadDataSource.getConnection();
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, () -> bulkheadDataSource.getConnection());
+        assertEquals(2, bulkheadDataSource.getActiveCount());
+        assertEquals(1, bulkheadDataSource.getRejectedCount());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void shouldReleasePermitOnceWhenConnectionIsClosed() throws Exception {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        Connection first = bulkheadDataSource.getConnection();
+
+        // When
+        first.close();
+        first.close();
+
+        // Then
+        assertEquals(0, bulkheadDataSource.getActiveCount());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void shouldReleasePermitWhenPoolFails() throws Exception {
+        // Given
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        // When & Then
+        assertThrows(SQLException.class, () -> bulkheadDataSource.getConnection());
+        assertEquals(0, bulkheadDataSource.getActiveCount());
+    }
+
+    @Test
+    void shouldDelegateOtherCallsAndUnwrapToTarget() throws Exception {
+        // Given
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        Connection wrapped = bulkheadDataSource.getConnection();
+
+        // When & Then
+        assertTrue(wrapped.getAutoCommit());
+        assertSame(connection, wrapped.unwrap(Connection.class));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.config;
+
+import com.example.demo.caches.UserProfileCache;
+import com.example.demo.caches.VerifiedTokenCache;
+import com.example.demo.services.AuthThrottleService;
+import com.example.demo.services.AvatarThumbnailService;
+import com.example.demo.services.OrderExpiryScheduler;
+import com.example.demo.services.PasswordHashingService;
+import com.example.demo.services.TokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for MetricsConfig
+ */
+@ExtendWith(MockitoExtension.class)
+class MetricsConfigTest {
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private AvatarThumbnailService avatarThumbnailService;
+
+    @Mock
+    private AuthThrottleService authThrottleService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private OrderExpiryScheduler orderExpiryScheduler;
+
+    @Mock
+    private DataSource dataSource;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldExposeCacheStatistics() {
+        // Given
+        when(verifiedTokenCache.getHitCount()).thenReturn(7L);
+        when(verifiedTokenCache.getMissCount()).thenReturn(3L);
+        when(userProfileCache.size()).thenReturn(12);
+
+        // When
+        bind(dataSource);
+
+        // Then
+        assertEquals(7.0, registry.get("cache.gets").tags("cache", "verified-tokens", "result", "hit").functionCounter().count());
+        assertEquals(3.0, registry.get("cache.gets").tags("cache", "verified-tokens", "result", "miss").functionCounter().count());
+        assertEquals(12.0, registry.get("cache.size").tag("cache", "user-profiles").gauge().value());
+    }
+
+    @Test
+    void shouldExposePasswordHashingTime() {
+        // Given
+        when(passwordHashingService.getHashCount()).thenReturn(4L);
+        when(passwordHashingService.getHashNanos()).thenReturn(2_000_000L);
+
+        // When
+        bind(dataSource);
+
+        // Then
+        assertEquals(4.0, registry.get("auth.password.hashing").functionTimer().count());
+        assertEquals(2.0, registry.get("auth.password.hashing").functionTimer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldExposeBulkheadWhenDataSourceIsWrapped() {
+        // Given
+        BulkheadDataSource bulkhead = new BulkheadDataSource(dataSource, 3, 50);
+
+        // When
+        bind(bulkhead);
+
+        // Then
+        assertEquals(0.0, registry.get("db.bulkhead.active").gauge().value());
+        assertEquals(0.0, registry.get("db.bulkhead.rejected").functionCounter().count());
+    }
+
+    @Test
+    void shouldSkipBulkheadWhenDataSourceIsNotWrapped() throws Exception {
+        // Given
+        when(dataSource.isWrapperFor(BulkheadDataSource.class)).thenReturn(false);
+
+        // When
+        bind(dataSource);
+
+        // Then
+        assertNull(registry.find("db.bulkhead.active").gauge());
+    }
+
+    private void bind(DataSource source) {
+        new MetricsConfig().applicationMetrics(verifiedTokenCache, userProfileCache, passwordHashingService,
+                avatarThumbnailService, authThrottleService, tokenRevocationService, orderExpiryScheduler, source)
+                .bindTo(registry);
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.demo.controllers;
 
+import com.example.demo.caches.VerifiedTokenCache;
 import com.example.demo.requests.LoginRequest;
 import com.example.demo.requests.RegisterRequest;
 import com.example.demo.responses.ApiResponse;
 import com.example.demo.responses.AuthResponse;
 import com.example.demo.responses.UserResponse;
 import com.example.demo.services.AuthService;
+import com.example.demo.services.AuthThrottleService;
+import com.example.demo.services.TokenRevocationService;
+import com.example.demo.services.UserService;
+import com.example.demo.utils.JwtPrincipal;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,13 +20,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +44,21 @@ class AuthControllerTest {
     @Mock
     private AuthService authService;
 
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private AuthThrottleService authThrottleService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
     @Mock
     private HttpServletResponse httpServletResponse;
 
@@ -65,7 +93,7 @@ class AuthControllerTest {
                 .thenReturn(testAuthResponse);
 
         // When
-        ResponseEntity<ApiResponse<AuthResponse>> response = authController.register(request, httpServletResponse);
+        ResponseEntity<ApiResponse<AuthResponse>> response = authController.register(request, httpServletRequest, httpServletResponse);
 
         // Then
         assertNotNull(response);
@@ -89,7 +117,7 @@ class AuthControllerTest {
                 .thenThrow(new IllegalArgumentException("Username already exists"));
 
         // When
-        ResponseEntity<ApiResponse<AuthResponse>> response = authController.register(request, httpServletResponse);
+        ResponseEntity<ApiResponse<AuthResponse>> response = authController.register(request, httpServletRequest, httpServletResponse);
 
         // Then
         assertNotNull(response);
@@ -111,7 +139,7 @@ class AuthControllerTest {
                 .thenReturn(testAuthResponse);
 
         // When
-        ResponseEntity<ApiResponse<AuthResponse>> response = authController.login(request, httpServletResponse);
+        ResponseEntity<ApiResponse<AuthResponse>> response = authController.login(request, httpServletRequest, httpServletResponse);
 
         // Then
         assertNotNull(response);
@@ -123,6 +151,33 @@ class AuthControllerTest {
         verify(authService, times(1)).login(anyString(), anyString());
     }
 
+    @Test
+    void shouldLeaveDatabaseSaturationToGlobalHandlerOnLogin() {
+        // Given
+        LoginRequest request = new LoginRequest();
+        request.setUsername("testuser");
+        request.setPassword("password123");
+        when(authService.login(anyString(), anyString()))
+                .thenThrow(new CannotCreateTransactionException("Database bulkhead full"));
+
+        // When & Then
+        // Not turned into a 500 here, GlobalExceptionHandler answers 503
+        assertThrows(CannotCreateTransactionException.class,
+                () -> authController.login(request, httpServletRequest, httpServletResponse));
+    }
+
+    @Test
+    void shouldLeaveDatabaseSaturationToGlobalHandlerOnVerify() {
+        // Given
+        JwtPrincipal principal = new JwtPrincipal(1L, "jti", Instant.now(), Instant.now().plusSeconds(3600));
+        when(httpServletRequest.getCookies()).thenReturn(new Cookie[] { new Cookie("token", "test-token") });
+        when(verifiedTokenCache.verify("test-token")).thenReturn(Optional.of(principal));
+        when(userService.getUserById(1L)).thenThrow(new DataAccessResourceFailureException("Database bulkhead full"));
+
+        // When & Then
+        assertThrows(DataAccessResourceFailureException.class, () -> authController.verify(httpServletRequest));
+    }
+
     @Test
     void shouldReturnUnauthorizedWhenLoginFails() {
         // Given
@@ -134,7 +189,7 @@ class AuthControllerTest {
                 .thenThrow(new IllegalArgumentException("Invalid username or password"));
 
         // When
-        ResponseEntity<ApiResponse<AuthResponse>> response = authController.login(request, httpServletResponse);
+        ResponseEntity<ApiResponse<AuthResponse>> response = authController.login(request, httpServletRequest, httpServletResponse);
 
         // Then
         assertNotNull(response);
@@ -145,10 +200,50 @@ class AuthControllerTest {
         verify(authService, times(1)).login(anyString(), anyString());
     }
 
+    @Test
+    void shouldRejectThrottledLoginWithoutCallingService() {
+        // Given
+        LoginRequest request = new LoginRequest();
+        request.setUsername("testuser");
+        request.setPassword("password123");
+
+        when(httpServletRequest.getRemoteAddr()).thenReturn("203.0.113.7");
+        when(authThrottleService.acquireLogin("203.0.113.7", "testuser")).thenReturn(12L);
+
+        // When
+        ResponseEntity<ApiResponse<AuthResponse>> response = authController.login(request, httpServletRequest, httpServletResponse);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("12", response.getHeaders().getFirst("Retry-After"));
+        assertFalse(response.getBody().isSuccess());
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void shouldRejectThrottledRegistrationWithoutCallingService() {
+        // Given
+        RegisterRequest request = new RegisterRequest();
+        request.setName("測試用戶");
+        request.setUsername("newuser");
+        request.setPassword("password123");
+
+        when(httpServletRequest.getRemoteAddr()).thenReturn("203.0.113.7");
+        when(authThrottleService.acquireRegistration("203.0.113.7")).thenReturn(3L);
+
+        // When
+        ResponseEntity<ApiResponse<AuthResponse>> response = authController.register(request, httpServletRequest, httpServletResponse);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst("Retry-After"));
+        verifyNoInteractions(authService);
+    }
+
     @Test
     void shouldLogoutSuccessfully() {
         // When
-        ResponseEntity<ApiResponse<Void>> response = authController.logout(httpServletResponse);
+        ResponseEntity<ApiResponse<Void>> response = authController.logout(httpServletRequest, httpServletResponse);
 
         // Then
         assertNotNull(response);
@@ -156,5 +251,68 @@ class AuthControllerTest {
         assertNotNull(response.getBody());
         assertTrue(response.getBody().isSuccess());
         assertEquals("Logout successful", response.getBody().getMessage());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void shouldRevokeTokenOnLogout() {
+        // Given
+        JwtPrincipal principal = new JwtPrincipal(1L, "jti", Instant.now(), Instant.now().plusSeconds(3600));
+        when(httpServletRequest.getCookies()).thenReturn(new Cookie[] { new Cookie("token", "test-token") });
+        when(verifiedTokenCache.verify("test-token")).thenReturn(Optional.of(principal));
+
+        // When
+        ResponseEntity<ApiResponse<Void>> response = authController.logout(httpServletRequest, httpServletResponse);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(tokenRevocationService, times(1)).revoke(principal);
+        verify(verifiedTokenCache, times(1)).invalidate("test-token");
+    }
+
+    @Test
+    void shouldClearCookieOnLogoutWithInvalidToken() {
+        // Given
+        when(httpServletRequest.getCookies()).thenReturn(new Cookie[] { new Cookie("token", "expired-token") });
+        when(verifiedTokenCache.verify("expired-token")).thenReturn(Optional.empty());
+
+        // When
+        ResponseEntity<ApiResponse<Void>> response = authController.logout(httpServletRequest, httpServletResponse);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(httpServletResponse).addCookie(argThat(cookie -> "token".equals(cookie.getName()) && cookie.getMaxAge() == 0));
+        verify(tokenRevocationService, never()).revoke(any());
+    }
+
+    @Test
+    void shouldClearCookieWithoutRevokingAgainOnLogoutWithRevokedToken() {
+        // Given
+        JwtPrincipal principal = new JwtPrincipal(1L, "jti", Instant.now(), Instant.now().plusSeconds(3600));
+        when(httpServletRequest.getCookies()).thenReturn(new Cookie[] { new Cookie("token", "revoked-token") });
+        when(verifiedTokenCache.verify("revoked-token")).thenReturn(Optional.of(principal));
+        when(tokenRevocationService.isRevoked(principal)).thenReturn(true);
+
+        // When
+        ResponseEntity<ApiResponse<Void>> response = authController.logout(httpServletRequest, httpServletResponse);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(httpServletResponse).addCookie(argThat(cookie -> "token".equals(cookie.getName()) && cookie.getMaxAge() == 0));
+        verify(tokenRevocationService, never()).revoke(any());
+    }
+
+    @Test
+    void shouldRevokeAllTokensOfUserOnLogoutAll() {
+        // Given
+        when(httpServletRequest.getAttribute("userId")).thenReturn(1L);
+
+        // When
+        ResponseEntity<ApiResponse<Void>> response = authController.logoutAll(httpServletRequest, httpServletResponse);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(tokenRevocationService, times(1)).revokeAllForUser(1L);
+        verify(verifiedTokenCache, times(1)).invalidateUser(1L);
     }
 }
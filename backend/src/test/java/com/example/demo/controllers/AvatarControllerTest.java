@@ -0,0 +1,152 @@
+package com.example.demo.controllers;
+
+import com.example.demo.services.AvatarStorageService;
+import com.example.demo.services.AvatarThumbnailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AvatarController
+ */
+@ExtendWith(MockitoExtension.class)
+class AvatarControllerTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3};
+
+    @TempDir
+    Path storageDir;
+
+    @Mock
+    private AvatarThumbnailService avatarThumbnailService;
+
+    private AvatarStorageService avatarStorageService;
+    private AvatarController avatarController;
+
+    @BeforeEach
+    void setUp() {
+        avatarStorageService = new AvatarStorageService(storageDir.toString(), "http://localhost:8080", 1024);
+        avatarController = new AvatarController();
+        ReflectionTestUtils.setField(avatarController, "avatarStorageService", avatarStorageService);
+        ReflectionTestUtils.setField(avatarController, "avatarThumbnailService", avatarThumbnailService);
+    }
+
+    @Test
+    void shouldServeStoredAvatarWithContentHashETag() throws Exception {
+        // Given
+        String fileName = AvatarStorageService.fileNameOf(avatarStorageService.store(PNG));
+
+        // When
+        ResponseEntity<Resource> response = avatarController.getAvatar(fileName, null, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        assertEquals("\"" + AvatarStorageService.hashOf(fileName) + "\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("immutable"));
+        assertArrayEquals(PNG, response.getBody().getContentAsByteArray());
+        verifyNoInteractions(avatarThumbnailService);
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingETag() {
+        // Given
+        String fileName = AvatarStorageService.fileNameOf(avatarStorageService.store(PNG));
+        String etag = avatarController.getAvatar(fileName, null, null).getHeaders().getETag();
+
+        // When
+        ResponseEntity<Resource> response = avatarController.getAvatar(fileName, null, etag);
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownAvatar() {
+        // When
+        ResponseEntity<Resource> response = avatarController.getAvatar("0".repeat(64) + ".png", null, null);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void shouldServeThumbnailWithSizedETag() {
+        // Given
+        String fileName = AvatarStorageService.fileNameOf(avatarStorageService.store(PNG));
+        avatarStorageService.storeThumbnail(fileName, 32, new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF});
+        when(avatarThumbnailService.findThumbnail(fileName, 20))
+                .thenReturn(avatarStorageService.resolveThumbnail(fileName, 32));
+
+        // When
+        ResponseEntity<Resource> response = avatarController.getAvatar(fileName, 20, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
+        assertEquals("\"" + AvatarStorageService.hashOf(fileName) + "-32\"", response.getHeaders().getETag());
+        verify(avatarThumbnailService, never()).generateAsync(anyString());
+    }
+
+    @Test
+    void shouldServeOriginalBrieflyAndQueueMissingThumbnail() {
+        // Given
+        String fileName = AvatarStorageService.fileNameOf(avatarStorageService.store(PNG));
+        when(avatarThumbnailService.findThumbnail(anyString(), anyInt())).thenReturn(Optional.empty());
+        when(avatarThumbnailService.canGenerate(fileName)).thenReturn(true);
+
+        // When
+        ResponseEntity<Resource> response = avatarController.getAvatar(fileName, 32, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        assertEquals("max-age=60, public", response.getHeaders().getCacheControl());
+        verify(avatarThumbnailService, times(1)).generateAsync(fileName);
+    }
+
+    @Test
+    void shouldServeOriginalForGoodWhenThumbnailsFailed() {
+        // Given
+        String fileName = AvatarStorageService.fileNameOf(avatarStorageService.store(PNG));
+        when(avatarThumbnailService.findThumbnail(anyString(), anyInt())).thenReturn(Optional.empty());
+        when(avatarThumbnailService.canGenerate(fileName)).thenReturn(false);
+
+        // When
+        ResponseEntity<Resource> response = avatarController.getAvatar(fileName, 32, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getCacheControl().contains("immutable"));
+        verify(avatarThumbnailService, never()).generateAsync(anyString());
+    }
+
+    @Test
+    void shouldNotServeUnsafeFileNames() {
+        // When
+        ResponseEntity<Resource> response = avatarController.getAvatar("../../etc/passwd", null, null);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.ETAG));
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.demo.controllers;
 
-import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.caches.CoursePage;
+import com.example.demo.caches.CourseResponseCache;
+import com.example.demo.caches.RenderedResponse;
+import com.example.demo.definitions.ApiConstants;
+import com.example.demo.helpers.PageCursor;
 import com.example.demo.models.Course;
 import com.example.demo.requests.CreateCourseRequest;
 import com.example.demo.requests.UpdateCourseRequest;
@@ -13,15 +17,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,6 +39,9 @@ class CourseControllerTest {
     @Mock
     private CourseService courseService;
 
+    @Mock
+    private CourseResponseCache courseResponseCache;
+
     @InjectMocks
     private CourseController courseController;
 
@@ -69,73 +78,187 @@ class CourseControllerTest {
     @Test
     void shouldGetAllCourses() {
         // Given
-        List<Course> courses = Arrays.asList(testCourse);
-        when(courseService.getAllCourses()).thenReturn(courses);
+        RenderedResponse rendered = new RenderedResponse(courseListJson().getBytes(StandardCharsets.UTF_8), "v1-test");
+        when(courseResponseCache.getCourseList()).thenReturn(rendered);
 
         // When
-        ResponseEntity<ApiResponse<List<CourseResponse>>> response = courseController.getAllCourses();
+        ResponseEntity<byte[]> response = courseController.getAllCourses(null, null, null, null, null);
 
         // Then
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertTrue(response.getBody().isSuccess());
-        assertNotNull(response.getBody().getData());
-        assertEquals(1, response.getBody().getData().size());
-        verify(courseService, times(1)).getAllCourses();
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(rendered.getBody(), response.getBody());
+        assertEquals(rendered.getEtag(), response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        verify(courseResponseCache, times(1)).getCourseList();
+        verifyNoInteractions(courseService);
+    }
+
+    @Test
+    void shouldServeGzipBodyWhenAccepted() {
+        // Given
+        RenderedResponse rendered = new RenderedResponse(courseListJson().getBytes(StandardCharsets.UTF_8), "v1-test");
+        when(courseResponseCache.getCourseList()).thenReturn(rendered);
+
+        // When
+        ResponseEntity<byte[]> response = courseController.getAllCourses(null, null, null, "gzip, deflate, br", null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+        assertSame(rendered.getGzipBody(), response.getBody());
+        assertEquals(rendered.getGzipEtag(), response.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenEtagMatches() {
+        // Given
+        RenderedResponse rendered = new RenderedResponse(courseListJson().getBytes(StandardCharsets.UTF_8), "v1-list");
+        when(courseResponseCache.getCourseList()).thenReturn(rendered);
+
+        // When
+        ResponseEntity<byte[]> response = courseController.getAllCourses(null, null, null, null, "\"v1-list\"");
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"v1-list\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldReturnFullBodyWhenEtagIsStale() {
+        // Given
+        RenderedResponse rendered = new RenderedResponse(courseListJson().getBytes(StandardCharsets.UTF_8), "v2-list");
+        when(courseResponseCache.getCourseList()).thenReturn(rendered);
+
+        // When
+        ResponseEntity<byte[]> response = courseController.getAllCourses(null, null, null, null, "\"v1-list\"");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(rendered.getBody(), response.getBody());
+        assertEquals("\"v2-list\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void shouldGetCourseSummaries() {
+        // Given
+        RenderedResponse rendered = new RenderedResponse("{\"success\":true}".getBytes(StandardCharsets.UTF_8), "v1-summaries");
+        when(courseResponseCache.getCourseSummaries()).thenReturn(rendered);
+
+        // When
+        ResponseEntity<byte[]> response = courseController.getAllCourses("summary", null, null, null, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(rendered.getBody(), response.getBody());
+        verify(courseResponseCache, times(1)).getCourseSummaries();
+        verify(courseResponseCache, never()).getCourseList();
+    }
+
+    @Test
+    void shouldGetCoursePageWithNextCursor() {
+        // Given
+        byte[] body = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+        String nextCursor = PageCursor.ofId(10L).encode();
+        when(courseResponseCache.getCoursePage(false, 5L, ApiConstants.MAX_PAGE_SIZE)).thenReturn(new CoursePage("v1-page", nextCursor, () -> body));
+
+        // When
+        ResponseEntity<byte[]> response = courseController.getAllCourses(null, PageCursor.ofId(5L).encode(), null, null, null);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(nextCursor, response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals("\"v1-page\"", response.getHeaders().getETag());
+        assertSame(body, response.getBody());
+        verify(courseResponseCache, never()).getCourseList();
+    }
+
+    @Test
+    void shouldAnswerMatchingCoursePageWithoutRenderingIt() {
+        // Given
+        String nextCursor = PageCursor.ofId(10L).encode();
+        when(courseResponseCache.getCoursePage(false, null, 10)).thenReturn(new CoursePage("v1-page", nextCursor, () -> {
+            throw new AssertionError("page rendered for a matching If-None-Match");
+        }));
+
+        // When
+        ResponseEntity<byte[]> response = courseController.getAllCourses(null, null, 10, null, "\"v1-page\"");
+
+        // Then
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(nextCursor, response.getHeaders().getFirst("X-Next-Cursor"));
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() {
+        // Given
+        RenderedResponse invalid = new RenderedResponse("{\"success\":false}".getBytes(StandardCharsets.UTF_8), "v1-invalid-cursor");
+        when(courseResponseCache.getInvalidCursor()).thenReturn(invalid);
+
+        // When
+        ResponseEntity<byte[]> response = courseController.getAllCourses(null, "not a cursor", 10, null, null);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(courseResponseCache, never()).getCoursePage(anyBoolean(), any(), anyInt());
     }
 
     @Test
     void shouldGetFeaturedCourses() {
         // Given
-        List<Course> featuredCourses = Arrays.asList(testCourse);
-        when(courseService.getFeaturedCourses()).thenReturn(featuredCourses);
+        RenderedResponse rendered = new RenderedResponse("{\"success\":true}".getBytes(StandardCharsets.UTF_8), "v1-test");
+        when(courseResponseCache.getFeaturedCourses()).thenReturn(rendered);
 
         // When
-        ResponseEntity<ApiResponse<List<CourseResponse>>> response = courseController.getFeaturedCourses();
+        ResponseEntity<byte[]> response = courseController.getFeaturedCourses("gzip", null);
 
         // Then
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertTrue(response.getBody().isSuccess());
-        assertNotNull(response.getBody().getData());
-        verify(courseService, times(1)).getFeaturedCourses();
+        // Small bodies are never gzipped
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertSame(rendered.getBody(), response.getBody());
+        verify(courseResponseCache, times(1)).getFeaturedCourses();
     }
 
     @Test
     void shouldGetCourseById() {
         // Given
         Long courseId = 1L;
-        when(courseService.getCourseById(courseId)).thenReturn(Optional.of(testCourse));
+        RenderedResponse rendered = new RenderedResponse("{\"success\":true}".getBytes(StandardCharsets.UTF_8), "v1-test");
+        when(courseResponseCache.getCourse(courseId)).thenReturn(rendered);
 
         // When
-        ResponseEntity<ApiResponse<CourseResponse>> response = courseController.getCourseById(courseId);
+        ResponseEntity<byte[]> response = courseController.getCourseById(courseId, null, null);
 
         // Then
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertTrue(response.getBody().isSuccess());
-        assertNotNull(response.getBody().getData());
-        verify(courseService, times(1)).getCourseById(courseId);
+        assertSame(rendered.getBody(), response.getBody());
+        verify(courseResponseCache, times(1)).getCourse(courseId);
     }
 
     @Test
     void shouldReturnNotFoundWhenCourseNotFound() {
         // Given
         Long courseId = 999L;
-        when(courseService.getCourseById(courseId)).thenReturn(Optional.empty());
+        RenderedResponse notFound = new RenderedResponse("{\"success\":false}".getBytes(StandardCharsets.UTF_8), "v1-test");
+        when(courseResponseCache.getCourse(courseId)).thenReturn(null);
+        when(courseResponseCache.getCourseNotFound()).thenReturn(notFound);
 
         // When
-        ResponseEntity<ApiResponse<CourseResponse>> response = courseController.getCourseById(courseId);
+        ResponseEntity<byte[]> response = courseController.getCourseById(courseId, null, null);
 
         // Then
         assertNotNull(response);
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        assertNotNull(response.getBody());
-        assertFalse(response.getBody().isSuccess());
-        verify(courseService, times(1)).getCourseById(courseId);
+        assertSame(notFound.getBody(), response.getBody());
+        assertNull(response.getHeaders().getETag());
+        verify(courseResponseCache, times(1)).getCourse(courseId);
     }
 
     @Test
@@ -207,4 +330,12 @@ class CourseControllerTest {
         assertTrue(response.getBody().isSuccess());
         verify(courseService, times(1)).deleteCourse(courseId);
     }
+
+    private String courseListJson() {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"data\":[");
+        for (int i = 0; i < 20; i++) {
+            json.append("{\"id\":").append(i).append(",\"title\":\"Test Course\"},");
+        }
+        return json.append("{}]}").toString();
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.demo.controllers;
+
+import com.example.demo.exceptions.GlobalExceptionHandler;
+import com.example.demo.exceptions.ResourceNotFoundException;
+import com.example.demo.services.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for OrderController, through MockMvc so GlobalExceptionHandler takes part
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderControllerTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @InjectMocks
+    private OrderController orderController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(orderController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenDatabaseBulkheadIsFullOnCreate() throws Exception {
+        // Given
+        when(orderService.createOrder(any(), any()))
+                .thenThrow(new CannotCreateTransactionException("Database bulkhead full"));
+
+        // When & Then
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":1,\"courseId\":2}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenDatabaseBulkheadIsFullOnPayment() throws Exception {
+        // Given
+        when(orderService.completePayment("202503141509260000"))
+                .thenThrow(new DataAccessResourceFailureException("Database bulkhead full"));
+
+        // When & Then
+        mockMvc.perform(post("/api/orders/202503141509260000/complete-payment"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void shouldStillAnswerBadRequestForRejectedOrder() throws Exception {
+        // Given
+        when(orderService.createOrder(any(), any())).thenThrow(new ResourceNotFoundException("Course not found with id: 2"));
+
+        // When & Then
+        mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":1,\"courseId\":2}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.controllers;
+
+import com.example.demo.requests.UpdateUserRequest;
+import com.example.demo.responses.ApiResponse;
+import com.example.demo.responses.UserResponse;
+import com.example.demo.services.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserController
+ */
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3};
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private HttpServletRequest httpServletRequest;
+
+    @InjectMocks
+    private UserController userController;
+
+    @Test
+    void shouldUploadOwnAvatar() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "me.png", "image/png", PNG);
+        UserResponse user = new UserResponse(1L, "測試用戶", "testuser", LocalDateTime.now());
+        user.setAvatarUrl("http://localhost:8080/api/avatars/" + "a".repeat(64) + ".png");
+        when(httpServletRequest.getAttribute("userId")).thenReturn(1L);
+        when(userService.updateAvatar(1L, PNG)).thenReturn(user);
+
+        // When
+        ResponseEntity<ApiResponse<UserResponse>> response = userController.uploadAvatar(1L, file, httpServletRequest);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().isSuccess());
+        assertEquals(user.getAvatarUrl(), response.getBody().getData().getAvatarUrl());
+    }
+
+    @Test
+    void shouldForbidUploadingAnotherUsersAvatar() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "me.png", "image/png", PNG);
+        when(httpServletRequest.getAttribute("userId")).thenReturn(2L);
+
+        // When
+        ResponseEntity<ApiResponse<UserResponse>> response = userController.uploadAvatar(1L, file, httpServletRequest);
+
+        // Then
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void shouldRejectInvalidAvatarUpload() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "me.txt", "text/plain", "hello".getBytes());
+        when(httpServletRequest.getAttribute("userId")).thenReturn(1L);
+        when(userService.updateAvatar(any(), any())).thenThrow(new IllegalArgumentException("Unsupported avatar image type"));
+
+        // When
+        ResponseEntity<ApiResponse<UserResponse>> response = userController.uploadAvatar(1L, file, httpServletRequest);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Unsupported avatar image type", response.getBody().getMessage());
+    }
+
+    @Test
+    void shouldReturnNotFoundWhenUploadingForMissingUser() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "me.png", "image/png", PNG);
+        when(httpServletRequest.getAttribute("userId")).thenReturn(1L);
+        when(userService.updateAvatar(any(), any())).thenThrow(new IllegalArgumentException("User not found"));
+
+        // When
+        ResponseEntity<ApiResponse<UserResponse>> response = userController.uploadAvatar(1L, file, httpServletRequest);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void shouldRejectInvalidAvatarUrlOnProfileUpdate() {
+        // Given
+        UpdateUserRequest request = new UpdateUserRequest();
+        request.setAvatarUrl("javascript:alert(1)");
+        when(userService.updateUser(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Invalid avatar URL"));
+
+        // When
+        ResponseEntity<ApiResponse<UserResponse>> response = userController.updateUser(1L, request);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid avatar URL", response.getBody().getMessage());
+    }
+}
@@ -3,12 +3,15 @@ package com.example.demo.exceptions;
 import com.example.demo.responses.ApiResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.sql.SQLTransientConnectionException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +48,35 @@ class GlobalExceptionHandlerTest {
         assertEquals(errorMessage, response.getBody().getMessage());
     }
 
+    @Test
+    void shouldHandleServiceUnavailableException() {
+        // Given
+        ServiceUnavailableException exception = new ServiceUnavailableException("Authentication is busy, please retry shortly");
+
+        // When
+        ResponseEntity<ApiResponse<Object>> response = exceptionHandler.handleServiceUnavailableException(exception);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse(response.getBody().isSuccess());
+    }
+
+    @Test
+    void shouldHandleDatabaseUnavailableException() {
+        // Given
+        CannotCreateTransactionException exception = new CannotCreateTransactionException(
+                "Could not open JPA EntityManager", new SQLTransientConnectionException("Database bulkhead full"));
+
+        // When
+        ResponseEntity<ApiResponse<Object>> response = exceptionHandler.handleDatabaseUnavailableException(exception);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertFalse(response.getBody().isSuccess());
+    }
+
     @Test
     void shouldHandleMethodArgumentNotValidException() {
         // Given
@@ -0,0 +1,42 @@
+package com.example.demo.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HttpHeaderHelper
+ */
+class HttpHeaderHelperTest {
+
+    @Test
+    void shouldAcceptGzip() {
+        assertTrue(HttpHeaderHelper.acceptsGzip("gzip"));
+        assertTrue(HttpHeaderHelper.acceptsGzip("deflate, gzip;q=0.8, br"));
+        assertTrue(HttpHeaderHelper.acceptsGzip("*"));
+    }
+
+    @Test
+    void shouldNotAcceptGzip() {
+        assertFalse(HttpHeaderHelper.acceptsGzip(null));
+        assertFalse(HttpHeaderHelper.acceptsGzip(""));
+        assertFalse(HttpHeaderHelper.acceptsGzip("br, deflate"));
+        assertFalse(HttpHeaderHelper.acceptsGzip("gzip;q=0"));
+        assertFalse(HttpHeaderHelper.acceptsGzip("identity"));
+    }
+
+    @Test
+    void shouldMatchIfNoneMatch() {
+        assertTrue(HttpHeaderHelper.matchesIfNoneMatch("\"v1-list\"", "\"v1-list\""));
+        assertTrue(HttpHeaderHelper.matchesIfNoneMatch("\"v0-list\", \"v1-list\"", "\"v1-list\""));
+        assertTrue(HttpHeaderHelper.matchesIfNoneMatch("W/\"v1-list\"", "\"v1-list\""));
+        assertTrue(HttpHeaderHelper.matchesIfNoneMatch("*", "\"v1-list\""));
+    }
+
+    @Test
+    void shouldNotMatchIfNoneMatch() {
+        assertFalse(HttpHeaderHelper.matchesIfNoneMatch(null, "\"v1-list\""));
+        assertFalse(HttpHeaderHelper.matchesIfNoneMatch("\"v0-list\"", "\"v1-list\""));
+        assertFalse(HttpHeaderHelper.matchesIfNoneMatch("\"v1-list\"", "\"v1-list-gzip\""));
+    }
+}
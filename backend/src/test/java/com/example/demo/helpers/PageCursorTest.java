@@ -0,0 +1,51 @@
+package com.example.demo.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PageCursor
+ */
+class PageCursorTest {
+
+    @Test
+    void shouldRoundTripCreatedAtAndId() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000);
+
+        // When
+        PageCursor cursor = PageCursor.decode(PageCursor.of(createdAt, 42L).encode());
+
+        // Then
+        assertEquals(createdAt, cursor.getCreatedAt());
+        assertEquals(42L, cursor.getId());
+    }
+
+    @Test
+    void shouldRoundTripIdOnlyCursor() {
+        // When
+        PageCursor cursor = PageCursor.decode(PageCursor.ofId(7L).encode());
+
+        // Then
+        assertNull(cursor.getCreatedAt());
+        assertEquals(7L, cursor.getId());
+    }
+
+    @Test
+    void shouldProduceUrlSafeToken() {
+        // When
+        String token = PageCursor.of(LocalDateTime.of(2025, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+
+        // Then
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    }
+
+    @Test
+    void shouldRejectMalformedToken() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("Zm9v"));
+    }
+}
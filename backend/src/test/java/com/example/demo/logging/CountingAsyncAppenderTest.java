@@ -0,0 +1,111 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountingAsyncAppender
+ */
+class CountingAsyncAppenderTest {
+
+    private final CountDownLatch received = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private LoggerContext context;
+    private Logger logger;
+    private CountingAsyncAppender appender;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        logger = context.getLogger("test");
+
+        // Holds the worker on the first event, so the queue behind it stays full
+        AppenderBase<ILoggingEvent> blocking = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                received.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        blocking.setContext(context);
+        blocking.start();
+
+        appender = new CountingAsyncAppender();
+        appender.setContext(context);
+        appender.setQueueSize(1);
+        appender.setDiscardingThreshold(0);
+        appender.addAppender(blocking);
+        appender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    void shouldCountOnlyEventsTheQueueRejects() throws InterruptedException {
+        // Given
+        long before = CountingAsyncAppender.getDroppedCount();
+        appender.doAppend(event("taken by the worker"));
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+
+        // When
+        appender.doAppend(event("fills the queue"));
+        appender.doAppend(event("rejected"));
+        appender.doAppend(event("rejected"));
+
+        // Then
+        assertEquals(2, CountingAsyncAppender.getDroppedCount() - before);
+    }
+
+    @Test
+    void shouldCountEveryRejectedEventUnderContention() throws InterruptedException {
+        // Given
+        appender.doAppend(event("taken by the worker"));
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        long before = CountingAsyncAppender.getDroppedCount();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 100; i++) {
+                    appender.doAppend(event("contended"));
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Then
+        // One event fits in the queue, every other one is dropped and counted
+        assertEquals(8 * 100 - 1, CountingAsyncAppender.getDroppedCount() - before);
+    }
+
+    private ILoggingEvent event(String message) {
+        return new LoggingEvent(Logger.class.getName(), logger, Level.WARN, message, null, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SamplingTurboFilter
+ */
+class SamplingTurboFilterTest {
+
+    private SamplingTurboFilter filter;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setBurst(3);
+        filter.setSampleRate(5);
+        filter.setWindowMillis(60000);
+        logger = new LoggerContext().getLogger("test");
+        logger.setLevel(Level.DEBUG);
+    }
+
+    @Test
+    void shouldPassBurstThenSampleOneInRate() {
+        // Given
+        int passed = 0;
+
+        // When
+        for (int i = 0; i < 23; i++) {
+            if (decide(Level.INFO, "Found {} courses") == FilterReply.NEUTRAL) {
+                passed++;
+            }
+        }
+
+        // Then
+        assertEquals(3 + 4, passed);
+    }
+
+    @Test
+    void shouldSampleEachMessageFormatSeparately() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            decide(Level.INFO, "Found {} courses");
+        }
+
+        // When
+        FilterReply reply = decide(Level.INFO, "Found {} featured courses");
+
+        // Then
+        assertEquals(FilterReply.NEUTRAL, reply);
+    }
+
+    @Test
+    void shouldNeverSampleWarnings() {
+        // Given
+        long sampledBefore = SamplingTurboFilter.getSampledOutCount();
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(Level.WARN, "Failed to expire {} orders"));
+        }
+
+        // Then
+        assertEquals(sampledBefore, SamplingTurboFilter.getSampledOutCount());
+    }
+
+    @Test
+    void shouldIgnoreDisabledLevels() {
+        // Given
+        logger.setLevel(Level.INFO);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            decide(Level.DEBUG, "Found {} courses");
+        }
+
+        // Then
+        logger.setLevel(Level.DEBUG);
+        assertEquals(FilterReply.NEUTRAL, decide(Level.DEBUG, "Found {} courses"));
+    }
+
+    @Test
+    void shouldLetUntrackedMessagesThroughBeyondMaxMessages() {
+        // Given
+        filter.setMaxMessages(1);
+        for (int i = 0; i < 10; i++) {
+            decide(Level.INFO, "Found {} courses");
+        }
+
+        // When
+        boolean allPassed = true;
+        for (int i = 0; i < 10; i++) {
+            allPassed &= decide(Level.INFO, "Course {} found: {}") == FilterReply.NEUTRAL;
+        }
+
+        // Then
+        assertTrue(allPassed);
+    }
+
+    private FilterReply decide(Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}
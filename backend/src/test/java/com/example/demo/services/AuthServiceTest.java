@@ -1,5 +1,6 @@
 package com.example.demo.services;
 
+import com.example.demo.exceptions.ServiceUnavailableException;
 import com.example.demo.models.User;
 import com.example.demo.repositories.UserRepository;
 import com.example.demo.responses.AuthResponse;
@@ -11,12 +12,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +34,12 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private PasswordHashingService passwordHashingService;
+
+    @Mock
+    private AvatarStorageService avatarStorageService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -53,7 +62,7 @@ class AuthServiceTest {
         String username = "newuser";
         String password = "password123";
         
-        when(userRepository.existsByUsername(username)).thenReturn(false);
+        when(passwordHashingService.hash(password)).thenReturn("hashed-password");
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User user = invocation.getArgument(0);
             user.setId(1L);
@@ -70,8 +79,8 @@ class AuthServiceTest {
         assertNotNull(response.getUser());
         assertEquals(name, response.getUser().getName());
         assertEquals(username, response.getUser().getUsername());
-        verify(userRepository, times(1)).existsByUsername(username);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, never()).existsByUsername(username);
+        verify(userRepository, times(1)).save(argThat(user -> "hashed-password".equals(user.getPassword())));
     }
 
     @Test
@@ -81,6 +90,9 @@ class AuthServiceTest {
         String username = "existinguser";
         String password = "password123";
         
+        when(passwordHashingService.hash(password)).thenReturn("hashed-password");
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
         when(userRepository.existsByUsername(username)).thenReturn(true);
 
         // When & Then
@@ -89,8 +101,22 @@ class AuthServiceTest {
         });
 
         assertEquals("Username already exists", exception.getMessage());
-        verify(userRepository, times(1)).existsByUsername(username);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, times(1)).save(any(User.class));
+        verify(jwtUtil, never()).generateToken(anyLong());
+    }
+
+    @Test
+    void shouldRethrowOtherConstraintViolationsOnRegister() {
+        // Given
+        when(passwordHashingService.hash("password123")).thenReturn("hashed-password");
+        when(userRepository.save(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("name is null"));
+        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            authService.register(null, "newuser", "password123");
+        });
     }
 
     @Test
@@ -100,6 +126,8 @@ class AuthServiceTest {
         String password = "password123";
         
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches(password, "password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("password123")).thenReturn(false);
         when(jwtUtil.generateToken(anyLong())).thenReturn("test-token");
 
         // When
@@ -111,6 +139,48 @@ class AuthServiceTest {
         assertEquals("testuser", response.getUser().getUsername());
         assertEquals("測試用戶", response.getUser().getName());
         verify(userRepository, times(1)).findByUsername(username);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void shouldRehashLegacyPasswordOnLogin() {
+        // Given
+        String username = "testuser";
+        String password = "password123";
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches(password, "password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("password123")).thenReturn(true);
+        when(passwordHashingService.hash(password)).thenReturn("hashed-password");
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(jwtUtil.generateToken(anyLong())).thenReturn("test-token");
+
+        // When
+        authService.login(username, password);
+
+        // Then
+        verify(userRepository, times(1)).save(argThat(user -> "hashed-password".equals(user.getPassword())));
+    }
+
+    @Test
+    void shouldLoginWithoutRehashWhenHashingIsSaturated() {
+        // Given
+        String username = "testuser";
+        String password = "password123";
+
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches(password, "password123")).thenReturn(true);
+        when(passwordHashingService.needsRehash("password123")).thenReturn(true);
+        when(passwordHashingService.hash(password)).thenThrow(new ServiceUnavailableException("Authentication is busy, please retry shortly"));
+        when(jwtUtil.generateToken(anyLong())).thenReturn("test-token");
+
+        // When
+        AuthResponse response = authService.login(username, password);
+
+        // Then
+        assertEquals("test-token", response.getToken());
+        assertEquals("password123", testUser.getPassword());
+        verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
@@ -128,6 +198,8 @@ class AuthServiceTest {
 
         assertEquals("Invalid username or password", exception.getMessage());
         verify(userRepository, times(1)).findByUsername(username);
+        // Unknown usernames pay for a bcrypt check too
+        verify(passwordHashingService, times(1)).matchesUnknownUser(password);
     }
 
     @Test
@@ -137,6 +209,7 @@ class AuthServiceTest {
         String wrongPassword = "wrongpassword";
         
         when(userRepository.findByUsername(username)).thenReturn(Optional.of(testUser));
+        when(passwordHashingService.matches(wrongPassword, "password123")).thenReturn(false);
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
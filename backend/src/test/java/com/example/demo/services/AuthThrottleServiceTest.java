@@ -0,0 +1,67 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuthThrottleService
+ */
+class AuthThrottleServiceTest {
+
+    private AuthThrottleService authThrottleService;
+
+    @BeforeEach
+    void setUp() {
+        authThrottleService = new AuthThrottleService(1, 1, 1, 1, 100);
+    }
+
+    @Test
+    void shouldThrottleWholeIpv6PrefixTogether() {
+        // Given
+        authThrottleService.acquireRegistration("2001:db8:1:2::1");
+
+        // When
+        long sameHost = authThrottleService.acquireRegistration("2001:db8:1:2:ffff:ffff:ffff:fffe");
+        long otherPrefix = authThrottleService.acquireRegistration("2001:db8:1:3::1");
+
+        // Then
+        assertTrue(sameHost > 0);
+        assertEquals(0, otherPrefix);
+        assertEquals(2, authThrottleService.getTrackedIpCount());
+    }
+
+    @Test
+    void shouldKeyIpv4AddressesAsGiven() {
+        // When & Then
+        assertEquals("203.0.113.7", AuthThrottleService.ipKey("203.0.113.7"));
+        assertEquals("203.0.113.7", AuthThrottleService.ipKey("::ffff:203.0.113.7"));
+    }
+
+    @Test
+    void shouldKeyUsernamesByFixedSizeDigest() {
+        // Given
+        String longUsername = "a".repeat(100_000);
+
+        // When
+        String key = AuthThrottleService.usernameKey(longUsername);
+
+        // Then
+        assertEquals(44, key.length());
+        assertEquals(key, AuthThrottleService.usernameKey(longUsername));
+        assertNotEquals(key, AuthThrottleService.usernameKey("a"));
+    }
+
+    @Test
+    void shouldThrottleSameUsernameAcrossAddresses() {
+        // Given
+        authThrottleService.acquireLogin("203.0.113.7", "alice");
+
+        // When
+        long retryAfter = authThrottleService.acquireLogin("203.0.113.8", "alice");
+
+        // Then
+        assertTrue(retryAfter > 0);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.demo.services;
+
+import com.example.demo.caches.UserProfileCache;
+import com.example.demo.models.User;
+import com.example.demo.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AvatarMigrationService
+ */
+@ExtendWith(MockitoExtension.class)
+class AvatarMigrationServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3};
+
+    @TempDir
+    Path storageDir;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AvatarThumbnailService avatarThumbnailService;
+
+    @Mock
+    private UserProfileCache userProfileCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AvatarMigrationService avatarMigrationService;
+
+    private AvatarStorageService avatarStorageService;
+
+    @BeforeEach
+    void setUp() {
+        // Upload limit of 1 KB, below the size of the oversized legacy avatar
+        avatarStorageService = new AvatarStorageService(storageDir.toString(), "http://localhost:8080", 1024);
+        ReflectionTestUtils.setField(avatarMigrationService, "avatarStorageService", avatarStorageService);
+    }
+
+    @Test
+    void shouldMoveLegacyDataUrlToStore() throws Exception {
+        // Given
+        User user = userWithAvatar(1L, dataUrl(PNG));
+        when(userRepository.findIdsWithInlineAvatar()).thenReturn(List.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        // When
+        int migrated = avatarMigrationService.migrateInlineAvatars();
+
+        // Then
+        assertEquals(1, migrated);
+        String fileName = AvatarStorageService.fileNameOf(user.getAvatarUrl());
+        assertNotNull(fileName);
+        assertArrayEquals(PNG, Files.readAllBytes(avatarStorageService.resolve(fileName).orElseThrow()));
+        verify(userRepository, times(1)).save(user);
+        verify(avatarThumbnailService, times(1)).generateAfterCommit(user.getAvatarUrl());
+        verify(userProfileCache, times(1)).invalidateAfterCommit(1L);
+    }
+
+    @Test
+    void shouldMoveLegacyAvatarLargerThanUploadLimit() {
+        // Given
+        byte[] large = new byte[4096];
+        System.arraycopy(PNG, 0, large, 0, PNG.length);
+        User user = userWithAvatar(1L, dataUrl(large));
+        when(userRepository.findIdsWithInlineAvatar()).thenReturn(List.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        // When
+        int migrated = avatarMigrationService.migrateInlineAvatars();
+
+        // Then
+        assertEquals(1, migrated);
+        assertNotNull(AvatarStorageService.fileNameOf(user.getAvatarUrl()));
+    }
+
+    @Test
+    void shouldClearInvalidInlineAvatar() {
+        // Given
+        User unsupported = userWithAvatar(1L, dataUrl("not an image".getBytes()));
+        User malformed = userWithAvatar(2L, "data:image/png;base64,***");
+        when(userRepository.findIdsWithInlineAvatar()).thenReturn(List.of(1L, 2L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(unsupported));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(malformed));
+
+        // When
+        int migrated = avatarMigrationService.migrateInlineAvatars();
+
+        // Then
+        assertEquals(0, migrated);
+        assertNull(unsupported.getAvatarUrl());
+        assertNull(malformed.getAvatarUrl());
+        // Saved, so the rows are not picked up again on the next startup
+        verify(userRepository, times(1)).save(unsupported);
+        verify(userRepository, times(1)).save(malformed);
+        verify(userProfileCache, times(1)).invalidateAfterCommit(1L);
+        verify(userProfileCache, times(1)).invalidateAfterCommit(2L);
+    }
+
+    @Test
+    void shouldSkipUsersWhoseAvatarChangedMeanwhile() {
+        // Given
+        User user = userWithAvatar(1L, "/api/avatars/" + "a".repeat(64) + ".png");
+        when(userRepository.findIdsWithInlineAvatar()).thenReturn(List.of(1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        // When
+        int migrated = avatarMigrationService.migrateInlineAvatars();
+
+        // Then
+        assertEquals(0, migrated);
+        verify(userRepository, never()).save(any());
+        verifyNoInteractions(userProfileCache);
+    }
+
+    @Test
+    void shouldDoNothingWithoutInlineAvatars() {
+        // Given
+        when(userRepository.findIdsWithInlineAvatar()).thenReturn(List.of());
+
+        // When
+        int migrated = avatarMigrationService.migrateInlineAvatars();
+
+        // Then
+        assertEquals(0, migrated);
+        verifyNoInteractions(transactionManager);
+    }
+
+    private static User userWithAvatar(Long id, String avatarUrl) {
+        User user = new User();
+        user.setId(id);
+        user.setAvatarUrl(avatarUrl);
+        return user;
+    }
+
+    private static String dataUrl(byte[] data) {
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(data);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AvatarStorageService
+ */
+class AvatarStorageServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3};
+
+    @TempDir
+    Path storageDir;
+
+    private AvatarStorageService avatarStorageService;
+
+    @BeforeEach
+    void setUp() {
+        avatarStorageService = new AvatarStorageService(storageDir.toString(), "http://localhost:8080/", 1024);
+    }
+
+    @Test
+    void shouldStoreImageByContentHash() throws Exception {
+        // When
+        String reference = avatarStorageService.store(PNG);
+
+        // Then
+        assertTrue(reference.matches("/api/avatars/[0-9a-f]{64}\\.png"));
+        String fileName = reference.substring(AvatarStorageService.URL_PREFIX.length());
+        Optional<Path> path = avatarStorageService.resolve(fileName);
+        assertTrue(path.isPresent());
+        assertArrayEquals(PNG, Files.readAllBytes(path.get()));
+        assertEquals("image/png", AvatarStorageService.contentType(fileName));
+    }
+
+    @Test
+    void shouldStoreIdenticalImagesOnce() throws Exception {
+        // When
+        String first = avatarStorageService.store(PNG);
+        String second = avatarStorageService.store(PNG.clone());
+
+        // Then
+        assertEquals(first, second);
+        try (var files = Files.walk(storageDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void shouldStoreDataUrl() {
+        // Given
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(PNG);
+
+        // When
+        String reference = avatarStorageService.toReference(dataUrl);
+
+        // Then
+        assertEquals(avatarStorageService.store(PNG), reference);
+    }
+
+    @Test
+    void shouldRejectInvalidImages() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.store(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.store("not an image".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.store(new byte[2048]));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.storeDataUrl("data:image/png;base64,***"));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.storeDataUrl("data:text/plain,hello"));
+    }
+
+    @Test
+    void shouldMapReferencesToPublicUrlsAndBack() {
+        // Given
+        String reference = avatarStorageService.store(PNG);
+
+        // When
+        String publicUrl = avatarStorageService.toPublicUrl(reference);
+
+        // Then
+        assertEquals("http://localhost:8080" + reference, publicUrl);
+        assertEquals(reference, avatarStorageService.toReference(publicUrl));
+        assertEquals("https://example.com/me.png", avatarStorageService.toReference("https://example.com/me.png"));
+        assertEquals("https://example.com/me.png", avatarStorageService.toPublicUrl("https://example.com/me.png"));
+        assertNull(avatarStorageService.toReference("  "));
+    }
+
+    @Test
+    void shouldRejectValuesThatAreNeitherStoredNorExternalImages() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.toReference("/api/avatars/../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.toReference("http://localhost:8080/api/avatars/me.png"));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.toReference("javascript:alert(1)"));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.toReference("not a url"));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.toReference("https://example.com/" + "a".repeat(2048)));
+    }
+
+    @Test
+    void shouldStoreLegacyDataUrlAboveUploadLimit() {
+        // Given
+        byte[] large = new byte[2048];
+        System.arraycopy(PNG, 0, large, 0, PNG.length);
+        String dataUrl = "data:image/png;base64," + Base64.getEncoder().encodeToString(large);
+
+        // When
+        String reference = avatarStorageService.storeLegacyDataUrl(dataUrl);
+
+        // Then
+        assertNotNull(AvatarStorageService.fileNameOf(reference));
+        assertThrows(IllegalArgumentException.class, () -> avatarStorageService.storeDataUrl(dataUrl));
+    }
+
+    @Test
+    void shouldNotResolveUnknownOrUnsafeNames() {
+        // When & Then
+        assertTrue(avatarStorageService.resolve("../../etc/passwd").isEmpty());
+        assertTrue(avatarStorageService.resolve("0".repeat(64) + ".png").isEmpty());
+        assertTrue(avatarStorageService.resolve(null).isEmpty());
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AvatarThumbnailService
+ */
+class AvatarThumbnailServiceTest {
+
+    @TempDir
+    Path storageDir;
+
+    private AvatarStorageService avatarStorageService;
+    private AvatarThumbnailService avatarThumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        avatarStorageService = new AvatarStorageService(storageDir.toString(), "http://localhost:8080", 1_000_000);
+        avatarThumbnailService = new AvatarThumbnailService(avatarStorageService, 1, 4, 100_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        avatarThumbnailService.shutdown();
+    }
+
+    @Test
+    void shouldGenerateSquareThumbnailsForEverySize() throws Exception {
+        // Given
+        String fileName = storePng(300, 200);
+
+        // When
+        avatarThumbnailService.generate(fileName);
+
+        // Then
+        for (int size : AvatarThumbnailService.SIZES) {
+            Optional<Path> thumbnail = avatarStorageService.resolveThumbnail(fileName, size);
+            assertTrue(thumbnail.isPresent(), "missing " + size + "px thumbnail");
+            BufferedImage image = ImageIO.read(thumbnail.get().toFile());
+            assertEquals(size, image.getWidth());
+            assertEquals(size, image.getHeight());
+        }
+        assertEquals(1, avatarThumbnailService.getGeneratedCount());
+    }
+
+    @Test
+    void shouldNotRegenerateExistingThumbnails() throws Exception {
+        // Given
+        String fileName = storePng(100, 100);
+        avatarThumbnailService.generate(fileName);
+
+        // When
+        avatarThumbnailService.generate(fileName);
+
+        // Then
+        assertEquals(1, avatarThumbnailService.getGeneratedCount());
+    }
+
+    @Test
+    void shouldPickSmallestThumbnailCoveringRequestedSize() throws Exception {
+        // Given
+        String fileName = storePng(256, 256);
+        avatarThumbnailService.generate(fileName);
+
+        // When & Then
+        assertEquals(32, AvatarThumbnailService.fitSize(20));
+        assertEquals(64, AvatarThumbnailService.fitSize(48));
+        assertEquals(128, AvatarThumbnailService.fitSize(128));
+        assertEquals(0, AvatarThumbnailService.fitSize(512));
+        assertEquals(avatarStorageService.resolveThumbnail(fileName, 64),
+                avatarThumbnailService.findThumbnail(fileName, 48));
+        assertTrue(avatarThumbnailService.findThumbnail(fileName, 512).isEmpty());
+    }
+
+    @Test
+    void shouldRefuseImagesAbovePixelLimitWithoutRetrying() throws Exception {
+        // Given
+        // 400 x 300 = 120,000 pixels, above the 100,000 pixel limit
+        String fileName = storePng(400, 300);
+
+        // When
+        avatarThumbnailService.generate(fileName);
+
+        // Then
+        assertTrue(avatarStorageService.resolveThumbnail(fileName, 32).isEmpty());
+        assertEquals(1, avatarThumbnailService.getFailedCount());
+        assertTrue(avatarStorageService.hasThumbnailFailed(fileName));
+        assertFalse(avatarThumbnailService.canGenerate(fileName));
+    }
+
+    @Test
+    void shouldMarkUndecodableAvatarAsFailed() {
+        // Given
+        // PNG signature followed by garbage
+        byte[] broken = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 1, 2, 3};
+        String fileName = AvatarStorageService.fileNameOf(avatarStorageService.store(broken));
+
+        // When
+        avatarThumbnailService.generate(fileName);
+        avatarThumbnailService.generateAsync(fileName);
+
+        // Then
+        assertEquals(1, avatarThumbnailService.getFailedCount());
+        assertFalse(avatarThumbnailService.canGenerate(fileName));
+        // Not queued again
+        assertEquals(0, avatarThumbnailService.getQueueDepth());
+    }
+
+    @Test
+    void shouldSkipWebpAvatars() {
+        // When & Then
+        assertFalse(AvatarThumbnailService.isSupported("0".repeat(64) + ".webp"));
+        assertTrue(AvatarThumbnailService.isSupported("0".repeat(64) + ".png"));
+    }
+
+    private String storePng(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(width / 2, height / 2, 0xFF336699);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return AvatarStorageService.fileNameOf(avatarStorageService.store(out.toByteArray()));
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.services;
+
+import com.example.demo.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent sign-ups for the same username against a real database:
+ * exactly one succeeds, the others get "Username already exists"
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {
+    "spring.datasource.url=jdbc:h2:mem:concurrentregistration",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.sql.init.mode=never",
+    "auth.password.bcrypt-strength=4"
+})
+class ConcurrentRegistrationTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void shouldCreateExactlyOneUserForConcurrentRegistrations() throws Exception {
+        // Given
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    authService.register("測試用戶", "racer", "password123");
+                    return "created";
+                } catch (IllegalArgumentException e) {
+                    return e.getMessage();
+                }
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        int rejected = 0;
+        for (Future<String> result : results) {
+            // Any other exception fails the test here
+            String outcome = result.get();
+            if ("created".equals(outcome)) {
+                created++;
+            } else {
+                assertEquals("Username already exists", outcome);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(1, created);
+        assertEquals(THREADS - 1, rejected);
+        assertEquals(1, userRepository.count());
+    }
+}
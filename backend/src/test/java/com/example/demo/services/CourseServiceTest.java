@@ -1,7 +1,10 @@
 package com.example.demo.services;
 
+import com.example.demo.caches.CourseCatalogCache;
+import com.example.demo.caches.CourseCatalogSnapshot;
 import com.example.demo.exceptions.ResourceNotFoundException;
 import com.example.demo.models.Course;
+import com.example.demo.repositories.ChapterRepository;
 import com.example.demo.repositories.CourseRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +30,12 @@ class CourseServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private ChapterRepository chapterRepository;
+
+    @Mock
+    private CourseCatalogCache courseCatalogCache;
+
     @InjectMocks
     private CourseService courseService;
 
@@ -50,7 +59,7 @@ class CourseServiceTest {
     void shouldGetAllCourses() {
         // Given
         List<Course> courses = Arrays.asList(testCourse);
-        when(courseRepository.findAll()).thenReturn(courses);
+        when(courseCatalogCache.getSnapshot()).thenReturn(new CourseCatalogSnapshot(1L, courses, List.of()));
 
         // When
         List<Course> result = courseService.getAllCourses();
@@ -59,14 +68,15 @@ class CourseServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals("Test Course", result.get(0).getTitle());
-        verify(courseRepository, times(1)).findAll();
+        verify(courseCatalogCache, times(1)).getSnapshot();
+        verifyNoInteractions(courseRepository);
     }
 
     @Test
     void shouldGetCourseById() {
         // Given
         Long courseId = 1L;
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(testCourse));
+        when(courseCatalogCache.getSnapshot()).thenReturn(new CourseCatalogSnapshot(1L, Arrays.asList(testCourse), List.of()));
 
         // When
         Optional<Course> result = courseService.getCourseById(courseId);
@@ -74,21 +84,21 @@ class CourseServiceTest {
         // Then
         assertTrue(result.isPresent());
         assertEquals("Test Course", result.get().getTitle());
-        verify(courseRepository, times(1)).findById(courseId);
+        verifyNoInteractions(courseRepository);
     }
 
     @Test
     void shouldReturnEmptyWhenCourseNotFound() {
         // Given
         Long courseId = 999L;
-        when(courseRepository.findById(courseId)).thenReturn(Optional.empty());
+        when(courseCatalogCache.getSnapshot()).thenReturn(new CourseCatalogSnapshot(1L, Arrays.asList(testCourse), List.of()));
 
         // When
         Optional<Course> result = courseService.getCourseById(courseId);
 
         // Then
         assertFalse(result.isPresent());
-        verify(courseRepository, times(1)).findById(courseId);
+        verifyNoInteractions(courseRepository);
     }
 
     @Test
@@ -103,6 +113,7 @@ class CourseServiceTest {
         assertNotNull(result);
         assertEquals("Test Course", result.getTitle());
         verify(courseRepository, times(1)).save(testCourse);
+        verify(courseCatalogCache, times(1)).refreshAfterCommit();
     }
 
     @Test
@@ -119,7 +130,7 @@ class CourseServiceTest {
         updatedCourse.setImageSubtitle("Updated Image");
         updatedCourse.setIsFeatured(false);
 
-        when(courseRepository.findById(courseId)).thenReturn(Optional.of(testCourse));
+        when(courseRepository.findByIdWithChapters(courseId)).thenReturn(Optional.of(testCourse));
         when(courseRepository.save(any(Course.class))).thenReturn(testCourse);
 
         // When
@@ -127,8 +138,10 @@ class CourseServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(courseRepository, times(1)).findById(courseId);
+        verify(courseRepository, times(1)).findByIdWithChapters(courseId);
+        verify(chapterRepository, times(1)).findByCourseIdWithVideos(courseId);
         verify(courseRepository, times(1)).save(any(Course.class));
+        verify(courseCatalogCache, times(1)).refreshAfterCommit();
     }
 
     @Test
@@ -136,14 +149,15 @@ class CourseServiceTest {
         // Given
         Long courseId = 999L;
         Course updatedCourse = new Course();
-        when(courseRepository.findById(courseId)).thenReturn(Optional.empty());
+        when(courseRepository.findByIdWithChapters(courseId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(ResourceNotFoundException.class, () -> {
             courseService.updateCourse(courseId, updatedCourse);
         });
-        verify(courseRepository, times(1)).findById(courseId);
+        verify(courseRepository, times(1)).findByIdWithChapters(courseId);
         verify(courseRepository, never()).save(any(Course.class));
+        verify(courseCatalogCache, never()).refreshAfterCommit();
     }
 
     @Test
@@ -159,6 +173,7 @@ class CourseServiceTest {
         // Then
         verify(courseRepository, times(1)).findById(courseId);
         verify(courseRepository, times(1)).delete(testCourse);
+        verify(courseCatalogCache, times(1)).refreshAfterCommit();
     }
 
     @Test
@@ -178,8 +193,12 @@ class CourseServiceTest {
     @Test
     void shouldGetFeaturedCourses() {
         // Given
-        List<Course> featuredCourses = Arrays.asList(testCourse);
-        when(courseRepository.findByIsFeaturedTrue()).thenReturn(featuredCourses);
+        Course regularCourse = new Course();
+        regularCourse.setId(2L);
+        regularCourse.setTitle("Regular Course");
+        regularCourse.setIsFeatured(false);
+        when(courseCatalogCache.getSnapshot())
+                .thenReturn(new CourseCatalogSnapshot(1L, Arrays.asList(testCourse, regularCourse), List.of()));
 
         // When
         List<Course> result = courseService.getFeaturedCourses();
@@ -188,6 +207,6 @@ class CourseServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertTrue(result.get(0).getIsFeatured());
-        verify(courseRepository, times(1)).findByIsFeaturedTrue();
+        verifyNoInteractions(courseRepository);
     }
 }
@@ -0,0 +1,157 @@
+package com.example.demo.services;
+
+import com.example.demo.helpers.CursorPage;
+import com.example.demo.helpers.PageCursor;
+import com.example.demo.projections.OrderView;
+import com.example.demo.repositories.CourseRepository;
+import com.example.demo.repositories.OrderRepository;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.utils.OrderNumberGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OrderService
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderExpiryScheduler orderExpiryScheduler;
+
+    @Mock
+    private OrderNumberGenerator orderNumberGenerator;
+
+    @InjectMocks
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderService, "expiryChunkSize", 100);
+    }
+
+    @Test
+    void shouldCancelExpiredOrdersInChunksUntilPartialChunk() {
+        // Given
+        when(orderRepository.cancelExpiredPendingOrders(any(LocalDateTime.class), anyString(), eq(100)))
+                .thenReturn(100, 100, 42);
+
+        // When
+        int cancelled = orderService.cancelExpiredOrders();
+
+        // Then
+        assertEquals(242, cancelled);
+        verify(orderRepository, times(3)).cancelExpiredPendingOrders(any(LocalDateTime.class), anyString(), eq(100));
+        // Each chunk commits in its own transaction
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void shouldRunSingleChunkWhenNothingExpired() {
+        // Given
+        when(orderRepository.cancelExpiredPendingOrders(any(LocalDateTime.class), anyString(), eq(100)))
+                .thenReturn(0);
+
+        // When
+        int cancelled = orderService.cancelExpiredOrders();
+
+        // Then
+        assertEquals(0, cancelled);
+        verify(orderRepository, times(1)).cancelExpiredPendingOrders(any(LocalDateTime.class), anyString(), eq(100));
+    }
+
+    @Test
+    void shouldListAllOrdersOfUserWithoutPaging() {
+        // Given
+        List<OrderView> orders = List.of(orderView(null, 3L), orderView(LocalDateTime.of(2024, 1, 1, 0, 0), 2L));
+        when(orderRepository.findAllViewsByUserId(7L)).thenReturn(orders);
+
+        // When
+        List<OrderView> result = orderService.getAllOrdersByUserId(7L);
+
+        // Then
+        assertEquals(orders, result);
+        verify(orderRepository, never()).findPageByUserId(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void shouldIssueIdOnlyCursorWhenPageEndsOnUndatedOrder() {
+        // Given
+        OrderView undated = orderView(null, 5L);
+        when(orderRepository.findPageByUserId(7L, Limit.of(2)))
+                .thenReturn(List.of(orderView(null, 6L), undated, orderView(LocalDateTime.now(), 4L)));
+
+        // When
+        CursorPage<List<OrderView>> page = orderService.getOrdersByUserId(7L, null, 2);
+
+        // Then
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertNull(next.getCreatedAt());
+        assertEquals(5L, next.getId());
+    }
+
+    @Test
+    void shouldContinueAfterUndatedCursor() {
+        // Given
+        String cursor = PageCursor.of(null, 5L).encode();
+        when(orderRepository.findPageByUserIdAfterUndated(7L, 5L, Limit.of(3))).thenReturn(List.of());
+
+        // When
+        CursorPage<List<OrderView>> page = orderService.getOrdersByUserId(7L, cursor, 2);
+
+        // Then
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.hasNext());
+        verify(orderRepository, never()).findPageByUserIdAfter(anyLong(), any(), anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void shouldContinueAfterDatedCursor() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 500);
+        String cursor = PageCursor.of(createdAt, 5L).encode();
+        when(orderRepository.findPageByCourseIdAfter(9L, createdAt, 5L, Limit.of(3))).thenReturn(List.of());
+
+        // When
+        orderService.getOrdersByCourseId(9L, cursor, 2);
+
+        // Then
+        verify(orderRepository).findPageByCourseIdAfter(9L, createdAt, 5L, Limit.of(3));
+    }
+
+    private static OrderView orderView(LocalDateTime createdAt, Long id) {
+        OrderView view = mock(OrderView.class);
+        lenient().when(view.getCreatedAt()).thenReturn(createdAt);
+        lenient().when(view.getId()).thenReturn(id);
+        return view;
+    }
+}
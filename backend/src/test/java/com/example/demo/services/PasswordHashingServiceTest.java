@@ -0,0 +1,146 @@
+package com.example.demo.services;
+
+import com.example.demo.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PasswordHashingService
+ */
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService passwordHashingService;
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void shouldHashAndVerifyPassword() {
+        // Given
+        passwordHashingService = new PasswordHashingService(4, 1, 4, 5000);
+
+        // When
+        String hash = passwordHashingService.hash("password123");
+
+        // Then
+        assertNotEquals("password123", hash);
+        assertTrue(passwordHashingService.matches("password123", hash));
+        assertFalse(passwordHashingService.matches("wrongpassword", hash));
+        assertFalse(passwordHashingService.needsRehash(hash));
+        assertEquals(3, passwordHashingService.getHashCount());
+    }
+
+    @Test
+    void shouldVerifyLegacyPlainTextPasswordAndAskForRehash() {
+        // Given
+        passwordHashingService = new PasswordHashingService(4, 1, 4, 5000);
+
+        // When & Then
+        assertTrue(passwordHashingService.matches("password123", "password123"));
+        assertFalse(passwordHashingService.matches("wrongpassword", "password123"));
+        assertTrue(passwordHashingService.needsRehash("password123"));
+    }
+
+    @Test
+    void shouldAskForRehashWhenCostIsRaised() {
+        // Given
+        passwordHashingService = new PasswordHashingService(4, 1, 4, 5000);
+        String weakHash = passwordHashingService.hash("password123");
+        passwordHashingService.shutdown();
+
+        // When
+        passwordHashingService = new PasswordHashingService(5, 1, 4, 5000);
+
+        // Then
+        assertTrue(passwordHashingService.needsRehash(weakHash));
+        assertTrue(passwordHashingService.matches("password123", weakHash));
+    }
+
+    @Test
+    void shouldRunBcryptCheckForUnknownUser() {
+        // Given
+        passwordHashingService = new PasswordHashingService(4, 1, 4, 5000);
+
+        // When
+        boolean matches = passwordHashingService.matchesUnknownUser("password123");
+
+        // Then
+        assertFalse(matches);
+        assertEquals(1, passwordHashingService.getHashCount());
+    }
+
+    @Test
+    void shouldShedWorkExpectedToOutlastTimeoutBeforeQueueing() {
+        // Given
+        // A cost-10 hash takes far longer than the 1 ms timeout
+        passwordHashingService = new PasswordHashingService(10, 1, 4, 1);
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> passwordHashingService.hash("password123"));
+        assertEquals(1, passwordHashingService.getRejectedCount());
+        assertEquals(0, passwordHashingService.getHashCount());
+        assertEquals(0, passwordHashingService.getQueueDepth());
+    }
+
+    @Test
+    void shouldShedWorkWhenQueueIsFull() throws Exception {
+        // Given
+        passwordHashingService = new PasswordHashingService(4, 1, 1, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = new Thread(() -> passwordHashingService.call(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        Thread queued = new Thread(() -> passwordHashingService.call(() -> true));
+        busy.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        queued.start();
+        while (passwordHashingService.getQueueDepth() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> passwordHashingService.hash("password123"));
+        assertEquals(1, passwordHashingService.getRejectedCount());
+        release.countDown();
+        busy.join();
+        queued.join();
+    }
+
+    @Test
+    void shouldShedWorkThatWaitsTooLong() throws Exception {
+        // Given
+        passwordHashingService = new PasswordHashingService(4, 1, 4, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = new Thread(() -> {
+            try {
+                passwordHashingService.call(() -> {
+                    started.countDown();
+                    // Ignores interrupts, so the worker stays busy after this caller gives up
+                    while (release.getCount() > 0) {
+                        Thread.onSpinWait();
+                    }
+                    return true;
+                });
+            } catch (ServiceUnavailableException e) {
+                // Expected, the caller gave up waiting
+            }
+        });
+        busy.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class, () -> passwordHashingService.hash("password123"));
+        release.countDown();
+        busy.join();
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.services;
+
+import com.example.demo.models.RevokedToken;
+import com.example.demo.models.UserTokenRevocation;
+import com.example.demo.repositories.RevokedTokenRepository;
+import com.example.demo.repositories.UserTokenRevocationRepository;
+import com.example.demo.utils.JwtPrincipal;
+import com.example.demo.utils.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TokenRevocationService
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private UserTokenRevocationRepository userTokenRevocationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "expiration", 2592000000L);
+    }
+
+    @Test
+    void shouldReportRevokedTokenWithoutDatabaseLookup() {
+        // Given
+        JwtPrincipal revoked = principal(1L, "revoked-jti", Instant.now());
+        JwtPrincipal other = principal(1L, "other-jti", Instant.now());
+        tokenRevocationService.revoke(revoked);
+
+        // When & Then
+        assertTrue(tokenRevocationService.isRevoked(revoked));
+        assertFalse(tokenRevocationService.isRevoked(other));
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+        verify(revokedTokenRepository, never()).findActiveTokenIds(any());
+    }
+
+    @Test
+    void shouldRevokeTokensIssuedBeforeLogoutAll() {
+        // Given
+        JwtPrincipal before = principal(1L, "old-jti", Instant.now().minusSeconds(60));
+        JwtPrincipal otherUser = principal(2L, "other-jti", Instant.now().minusSeconds(60));
+        tokenRevocationService.revokeAllForUser(1L);
+        JwtPrincipal after = principal(1L, "new-jti", Instant.now().plusSeconds(5));
+
+        // When & Then
+        assertTrue(tokenRevocationService.isRevoked(before));
+        assertFalse(tokenRevocationService.isRevoked(otherUser));
+        assertFalse(tokenRevocationService.isRevoked(after));
+        verify(userTokenRevocationRepository, times(1)).save(any(UserTokenRevocation.class));
+    }
+
+    @Test
+    void shouldAcceptLoginInSameSecondAsLogoutAll() throws InterruptedException {
+        // Given
+        JwtUtil jwtUtil = new JwtUtil("test-secret-key-that-is-long-enough-for-hmac-sha256", 60_000L);
+        JwtPrincipal before = jwtUtil.verifyToken(jwtUtil.generateToken(1L)).orElseThrow();
+        Thread.sleep(2);
+        tokenRevocationService.revokeAllForUser(1L);
+        Thread.sleep(2);
+
+        // When
+        JwtPrincipal relogin = jwtUtil.verifyToken(jwtUtil.generateToken(1L)).orElseThrow();
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(before));
+        assertFalse(tokenRevocationService.isRevoked(relogin));
+    }
+
+    @Test
+    void shouldKeepRevocationMadeWhileRefreshIsLoading() {
+        // Given
+        JwtPrincipal revokedDuringLoad = principal(1L, "late-jti", Instant.now());
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenAnswer(invocation -> {
+            // Committed after the refresh read its snapshot
+            tokenRevocationService.revoke(revokedDuringLoad);
+            tokenRevocationService.revokeAllForUser(2L);
+            return List.of("stored-jti");
+        });
+        when(userTokenRevocationRepository.findAll()).thenReturn(List.of());
+
+        // When
+        tokenRevocationService.refresh();
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(revokedDuringLoad));
+        assertTrue(tokenRevocationService.isRevoked(principal(2L, "any-jti", Instant.now().minusSeconds(60))));
+        assertTrue(tokenRevocationService.isRevoked(principal(1L, "stored-jti", Instant.now())));
+        assertEquals(2, tokenRevocationService.getRevokedTokenCount());
+    }
+
+    @Test
+    void shouldRevokeAllTokensOfUserForTokensWithoutId() {
+        // Given
+        JwtPrincipal legacy = principal(1L, null, Instant.now().minusSeconds(60));
+
+        // When
+        tokenRevocationService.revoke(legacy);
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(legacy));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldLoadRevocationsOnRefresh() {
+        // Given
+        LocalDateTime revokedBefore = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenReturn(List.of("stored-jti"));
+        when(userTokenRevocationRepository.findAll()).thenReturn(List.of(new UserTokenRevocation(2L, revokedBefore)));
+
+        // When
+        tokenRevocationService.refresh();
+
+        // Then
+        assertTrue(tokenRevocationService.isRevoked(principal(1L, "stored-jti", Instant.now())));
+        assertTrue(tokenRevocationService.isRevoked(principal(2L, "any-jti", Instant.now().minusSeconds(60))));
+        assertEquals(1, tokenRevocationService.getRevokedTokenCount());
+        verify(revokedTokenRepository, times(1)).deleteExpired(any());
+        verify(userTokenRevocationRepository, times(1)).deleteOlderThan(any());
+    }
+
+    private static JwtPrincipal principal(Long userId, String tokenId, Instant issuedAt) {
+        return new JwtPrincipal(userId, tokenId, issuedAt, issuedAt.plusSeconds(3600));
+    }
+}
@@ -3,10 +3,12 @@ package com.example.demo.utils;
 import com.example.demo.models.Chapter;
 import com.example.demo.models.Course;
 import com.example.demo.models.Video;
+import com.example.demo.projections.CourseSummaryView;
 import com.example.demo.requests.CreateCourseRequest;
 import com.example.demo.requests.UpdateCourseRequest;
 import com.example.demo.responses.ChapterResponse;
 import com.example.demo.responses.CourseResponse;
+import com.example.demo.responses.CourseSummaryResponse;
 import com.example.demo.responses.VideoResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -255,4 +257,38 @@ class CourseMapperTest {
         assertNotNull(response.getVideos());
         assertTrue(response.getVideos().isEmpty());
     }
+
+    @Test
+    void shouldConvertCourseSummaryViewToResponse() {
+        // Given
+        CourseSummaryView summary = new CourseSummaryView() {
+            public Long getId() { return 1L; }
+            public String getTitle() { return "Test Course"; }
+            public String getSubtitle() { return "Test Subtitle"; }
+            public String getImageUrl() { return "/images/test.png"; }
+            public String getPriceText() { return "NT$ 1,000"; }
+            public Boolean getIsFeatured() { return true; }
+            public Long getChapterCount() { return 3L; }
+            public Long getVideoCount() { return 12L; }
+            public Long getTotalDuration() { return 7200L; }
+        };
+
+        // When
+        CourseSummaryResponse response = CourseMapper.toSummaryResponse(summary);
+
+        // Then
+        assertNotNull(response);
+        assertEquals(1L, response.getId());
+        assertEquals("Test Course", response.getTitle());
+        assertEquals("NT$ 1,000", response.getPriceText());
+        assertTrue(response.getIsFeatured());
+        assertEquals(3L, response.getChapterCount());
+        assertEquals(12L, response.getVideoCount());
+        assertEquals(7200L, response.getTotalDuration());
+    }
+
+    @Test
+    void shouldReturnNullWhenCourseSummaryViewIsNull() {
+        assertNull(CourseMapper.toSummaryResponse(null));
+    }
 }
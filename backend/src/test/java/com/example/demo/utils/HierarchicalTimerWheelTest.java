@@ -0,0 +1,106 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for HierarchicalTimerWheel
+ */
+class HierarchicalTimerWheelTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void shouldFireAtDeadlineAndNotBefore() {
+        // Given
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1000, START);
+        wheel.schedule("order", START + 2500);
+
+        // When
+        List<String> early = wheel.advance(START + 2999);
+        List<String> onTime = wheel.advance(START + 3000);
+
+        // Then
+        assertTrue(early.isEmpty());
+        assertEquals(List.of("order"), onTime);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void shouldFireDeadlinesInHigherLevelsWithinOneTick() {
+        // Given
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1000, START);
+        long threeDays = 3L * 24 * 60 * 60 * 1000;
+        wheel.schedule(1L, START + threeDays);
+
+        // When
+        List<Long> early = wheel.advance(START + threeDays - 1000);
+        List<Long> onTime = wheel.advance(START + threeDays);
+
+        // Then
+        assertTrue(early.isEmpty());
+        assertEquals(List.of(1L), onTime);
+    }
+
+    @Test
+    void shouldFirePastDeadlineOnNextAdvance() {
+        // Given
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1000, START);
+        wheel.schedule(1L, START - 60_000);
+
+        // When
+        List<Long> due = wheel.advance(START);
+
+        // Then
+        assertEquals(List.of(1L), due);
+    }
+
+    @Test
+    void shouldHoldDeadlinesBeyondTheWheelSpan() {
+        // Given
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1, START);
+        long deadline = START + (1L << 24) + 5000;
+        wheel.schedule(1L, deadline);
+
+        // When
+        List<Long> early = wheel.advance(deadline - 1);
+        List<Long> onTime = wheel.advance(deadline);
+
+        // Then
+        assertTrue(early.isEmpty());
+        assertEquals(List.of(1L), onTime);
+    }
+
+    @Test
+    void shouldFireEveryRandomDeadlineAtItsTick() {
+        // Given
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1000, START);
+        Random random = new Random(42);
+        List<Long> deadlines = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = START + (long) (random.nextDouble() * 500_000_000L);
+            deadlines.add(deadline);
+            wheel.schedule(deadline, deadline);
+        }
+
+        // When
+        List<Long> fired = new ArrayList<>();
+        for (long now = START; now <= START + 500_000_000L + 1000; now += 7000) {
+            for (Long deadline : wheel.advance(now)) {
+                // Fired no earlier than the deadline and no later than the advance that covers it
+                assertTrue(deadline <= now, "fired early");
+                assertTrue(now - deadline < 7000 + 1000, "fired late");
+                fired.add(deadline);
+            }
+        }
+
+        // Then
+        assertEquals(deadlines.size(), fired.size());
+        assertEquals(0, wheel.size());
+    }
+}
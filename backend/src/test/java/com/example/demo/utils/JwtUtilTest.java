@@ -0,0 +1,80 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtUtil
+ */
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-long-enough-for-hmac-sha256";
+
+    private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000L);
+
+    @Test
+    void shouldVerifyGeneratedToken() {
+        // Given
+        String token = jwtUtil.generateToken(42L);
+
+        // When
+        Optional<JwtPrincipal> principal = jwtUtil.verifyToken(token);
+
+        // Then
+        assertTrue(principal.isPresent());
+        assertEquals(42L, principal.get().getUserId());
+        assertTrue(principal.get().getExpiresAt().isAfter(Instant.now()));
+        assertNotNull(principal.get().getTokenId());
+        assertNotNull(principal.get().getIssuedAt());
+        assertEquals(42L, jwtUtil.getUserIdFromToken(token));
+        assertTrue(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void shouldCarryIssueTimeInMilliseconds() {
+        // Given
+        Instant before = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+        // When
+        Instant issuedAt = jwtUtil.verifyToken(jwtUtil.generateToken(42L)).orElseThrow().getIssuedAt();
+
+        // Then
+        assertFalse(issuedAt.isBefore(before));
+        assertFalse(issuedAt.isAfter(Instant.now()));
+    }
+
+    @Test
+    void shouldGiveEachTokenItsOwnId() {
+        // When
+        String first = jwtUtil.verifyToken(jwtUtil.generateToken(42L)).orElseThrow().getTokenId();
+        String second = jwtUtil.verifyToken(jwtUtil.generateToken(42L)).orElseThrow().getTokenId();
+
+        // Then
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKey() {
+        // Given
+        String token = new JwtUtil("another-secret-key-that-is-long-enough-for-hmac-sha256", 60_000L).generateToken(42L);
+
+        // When & Then
+        assertTrue(jwtUtil.verifyToken(token).isEmpty());
+        assertNull(jwtUtil.getUserIdFromToken(token));
+    }
+
+    @Test
+    void shouldRejectExpiredAndMalformedTokens() {
+        // Given
+        String expired = new JwtUtil(SECRET, -60_000L).generateToken(42L);
+
+        // When & Then
+        assertTrue(jwtUtil.verifyToken(expired).isEmpty());
+        assertTrue(jwtUtil.verifyToken("not-a-token").isEmpty());
+    }
+}
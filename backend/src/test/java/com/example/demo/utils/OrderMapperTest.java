@@ -0,0 +1,194 @@
+package com.example.demo.utils;
+
+import com.example.demo.models.Course;
+import com.example.demo.models.Order;
+import com.example.demo.models.User;
+import com.example.demo.projections.OrderView;
+import com.example.demo.responses.OrderResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrderMapper utility class
+ */
+class OrderMapperTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 14, 15, 9, 26);
+
+    @Test
+    void shouldConvertOrderViewToResponse() {
+        // Given
+        OrderView view = view("PENDING", NOW.plusDays(1), null);
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        assertEquals(1L, response.getId());
+        assertEquals("202503141509260000", response.getOrderNumber());
+        assertEquals(2L, response.getUserId());
+        assertEquals("測試用戶", response.getUserName());
+        assertEquals(3L, response.getCourseId());
+        assertEquals("Test Course", response.getCourseTitle());
+        assertEquals("PENDING", response.getStatus());
+        assertNull(response.getRemarks());
+    }
+
+    @Test
+    void shouldReportExpiredPendingOrderViewAsCancelled() {
+        // Given
+        OrderView view = view("PENDING", NOW.minusMinutes(1), null);
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        assertEquals("CANCELLED", response.getStatus());
+        assertEquals(Order.EXPIRED_REMARKS, response.getRemarks());
+    }
+
+    @Test
+    void shouldKeepPendingOrderViewBeforeDeadline() {
+        // Given
+        OrderView view = view("PENDING", NOW.plusNanos(1), null);
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        assertEquals("PENDING", response.getStatus());
+        assertNull(response.getRemarks());
+    }
+
+    @Test
+    void shouldKeepPendingOrderViewAtDeadline() {
+        // Given
+        OrderView view = view("PENDING", NOW, null);
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        // Payment is still accepted at the deadline itself, so the order must not read as cancelled yet
+        assertEquals("PENDING", response.getStatus());
+        assertNull(response.getRemarks());
+    }
+
+    @Test
+    void shouldReportPendingOrderViewJustPastDeadlineAsCancelled() {
+        // Given
+        OrderView view = view("PENDING", NOW.minusNanos(1), null);
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        assertEquals("CANCELLED", response.getStatus());
+        assertEquals(Order.EXPIRED_REMARKS, response.getRemarks());
+    }
+
+    @Test
+    void shouldKeepPendingOrderViewWithoutDeadline() {
+        // Given
+        OrderView view = view("PENDING", null, null);
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        assertEquals("PENDING", response.getStatus());
+    }
+
+    @Test
+    void shouldKeepCancelledOrderRemarksPastDeadline() {
+        // Given
+        OrderView view = view("CANCELLED", NOW.minusDays(1), "cancelled by user");
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        assertEquals("CANCELLED", response.getStatus());
+        assertEquals("cancelled by user", response.getRemarks());
+    }
+
+    @Test
+    void shouldKeepPaidOrderViewPastDeadline() {
+        // Given
+        OrderView view = view("PAID", NOW.minusDays(1), "paid");
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(view, NOW);
+
+        // Then
+        assertEquals("PAID", response.getStatus());
+        assertEquals("paid", response.getRemarks());
+    }
+
+    @Test
+    void shouldConvertOrderEntityToResponse() {
+        // Given
+        User user = new User();
+        user.setId(2L);
+        user.setName("測試用戶");
+        Course course = new Course();
+        course.setId(3L);
+        course.setTitle("Test Course");
+        Order order = new Order("202503141509260000", user, course, NOW.minusMinutes(1));
+        order.setId(1L);
+
+        // When
+        OrderResponse response = OrderMapper.toResponse(order, NOW);
+
+        // Then
+        assertEquals("測試用戶", response.getUserName());
+        assertEquals("Test Course", response.getCourseTitle());
+        assertEquals("CANCELLED", response.getStatus());
+    }
+
+    @Test
+    void shouldDeriveEntityExpiryAroundDeadline() {
+        // Given
+        Order order = new Order("202503141509260000", new User(), new Course(), NOW);
+
+        // Then
+        assertFalse(order.isExpiredAt(NOW.minusSeconds(1)));
+        assertFalse(order.isExpiredAt(NOW));
+        assertTrue(order.isExpiredAt(NOW.plusSeconds(1)));
+    }
+
+    @Test
+    void shouldNotExpireEntityOncePaid() {
+        // Given
+        Order order = new Order("202503141509260000", new User(), new Course(), NOW);
+        order.setStatus("PAID");
+
+        // Then
+        assertFalse(order.isExpiredAt(NOW.plusDays(1)));
+    }
+
+    @Test
+    void shouldReturnNullForNullInput() {
+        assertNull(OrderMapper.toResponse((Order) null, NOW));
+        assertNull(OrderMapper.toResponse((OrderView) null, NOW));
+    }
+
+    private OrderView view(String status, LocalDateTime paymentDeadline, String remarks) {
+        return new OrderView() {
+            public Long getId() { return 1L; }
+            public String getOrderNumber() { return "202503141509260000"; }
+            public Long getUserId() { return 2L; }
+            public String getUserName() { return "測試用戶"; }
+            public Long getCourseId() { return 3L; }
+            public String getCourseTitle() { return "Test Course"; }
+            public String getStatus() { return status; }
+            public LocalDateTime getPaymentDeadline() { return paymentDeadline; }
+            public LocalDateTime getPaymentDate() { return null; }
+            public String getRemarks() { return remarks; }
+            public LocalDateTime getCreatedAt() { return NOW.minusHours(1); }
+        };
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OrderNumberGenerator
+ */
+class OrderNumberGeneratorTest {
+
+    // 2025-03-14T15:09:26Z
+    private static final long NOW = 1_741_964_966_000L;
+
+    @Test
+    void shouldKeepEighteenCharFormat() {
+        // Given
+        OrderNumberGenerator generator = new OrderNumberGenerator(new MutableClock(NOW), 5);
+
+        // When
+        String first = generator.next();
+        String second = generator.next();
+
+        // Then
+        assertEquals("202503141509265000", first);
+        assertEquals("202503141509265001", second);
+    }
+
+    @Test
+    void shouldCountIntoNextSecondWhenSequenceIsExhausted() {
+        // Given
+        OrderNumberGenerator generator = new OrderNumberGenerator(new MutableClock(NOW), 0);
+        for (int i = 0; i < OrderNumberGenerator.SEQUENCE_LIMIT; i++) {
+            generator.next();
+        }
+
+        // When
+        String overflow = generator.next();
+
+        // Then
+        assertEquals("202503141509270000", overflow);
+    }
+
+    @Test
+    void shouldStayUniqueWhenClockGoesBackwards() {
+        // Given
+        MutableClock clock = new MutableClock(NOW);
+        OrderNumberGenerator generator = new OrderNumberGenerator(clock, 0);
+        String before = generator.next();
+
+        // When
+        clock.setMillis(NOW - 5000);
+        String after = generator.next();
+
+        // Then
+        assertEquals("202503141509260000", before);
+        assertEquals("202503141509260001", after);
+    }
+
+    @Test
+    void shouldResumeAfterSeededNumberAheadOfClock() {
+        // Given
+        OrderNumberGenerator generator = new OrderNumberGenerator(new MutableClock(NOW), 0);
+
+        // When
+        // A previous run counted ahead of the clock, possibly on another node
+        generator.seed("202503141509281zzz");
+        String next = generator.next();
+
+        // Then
+        assertEquals("202503141509290000", next);
+    }
+
+    @Test
+    void shouldIgnoreSeedBehindClock() {
+        // Given
+        OrderNumberGenerator generator = new OrderNumberGenerator(new MutableClock(NOW), 0);
+
+        // When
+        generator.seed("202503141509200005");
+        String next = generator.next();
+
+        // Then
+        assertEquals("202503141509260000", next);
+    }
+
+    @Test
+    void shouldNotMoveBackwardsWhenSeededWithOlderNumber() {
+        // Given
+        OrderNumberGenerator generator = new OrderNumberGenerator(new MutableClock(NOW), 0);
+        generator.seed("202503141509300000");
+
+        // When
+        generator.seed("202503141509280000");
+        String next = generator.next();
+
+        // Then
+        assertEquals("202503141509310000", next);
+    }
+
+    @Test
+    void shouldRejectMalformedSeed() {
+        OrderNumberGenerator generator = new OrderNumberGenerator(new MutableClock(NOW), 0);
+        assertThrows(IllegalArgumentException.class, () -> generator.seed("ORD-1"));
+        assertThrows(IllegalArgumentException.class, () -> generator.seed("2025031415x9260000"));
+        assertThrows(IllegalArgumentException.class, () -> generator.seed("202513141509260000"));
+        assertThrows(IllegalArgumentException.class, () -> generator.seed(null));
+    }
+
+    @Test
+    void shouldRejectNodeIdOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(new MutableClock(NOW), 36));
+        assertThrows(IllegalArgumentException.class, () -> new OrderNumberGenerator(new MutableClock(NOW), -1));
+    }
+
+    @Test
+    void shouldGenerateUniqueNumbersUnderConcurrency() throws Exception {
+        // Given
+        OrderNumberGenerator generator = new OrderNumberGenerator(3);
+        int threads = 16;
+        int perThread = 20_000;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    String number = generator.next();
+                    assertEquals(18, number.length());
+                    assertEquals('3', number.charAt(14));
+                    numbers.add(number);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(threads * perThread, numbers.size());
+    }
+
+    /**
+     * Clock whose time the test controls
+     */
+    private static final class MutableClock extends Clock {
+        private volatile long millis;
+
+        private MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        void setMillis(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TokenBucketRateLimiter
+ */
+class TokenBucketRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void shouldAllowBurstUpToCapacity() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 100, clock::get);
+
+        // When
+        long first = limiter.tryAcquire("a");
+        long second = limiter.tryAcquire("a");
+        long third = limiter.tryAcquire("a");
+        long fourth = limiter.tryAcquire("a");
+
+        // Then
+        assertEquals(0, first);
+        assertEquals(0, second);
+        assertEquals(0, third);
+        assertEquals(SECOND, fourth);
+    }
+
+    @Test
+    void shouldRefillOverTime() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 1, 100, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+
+        // When
+        long rejected = limiter.tryAcquire("a");
+        clock.addAndGet(SECOND);
+        long afterRefill = limiter.tryAcquire("a");
+
+        // Then
+        assertTrue(rejected > 0);
+        assertEquals(0, afterRefill);
+    }
+
+    @Test
+    void shouldKeepKeysIndependent() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100, clock::get);
+        limiter.tryAcquire("a");
+
+        // When & Then
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void shouldEvictOnlyIdleBuckets() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 1, 100, clock::get);
+        limiter.tryAcquire("idle");
+        clock.addAndGet(2 * SECOND);
+        limiter.tryAcquire("busy");
+
+        // When
+        limiter.evictIdle();
+
+        // Then
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void shouldStayWithinMaxKeys() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1, 50, clock::get);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        // Then
+        assertTrue(limiter.size() <= 50);
+    }
+
+    @Test
+    void shouldKeepThrottledKeyThrottledWhenMapIsFull() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 10, clock::get);
+        limiter.tryAcquire("attacker");
+        assertTrue(limiter.tryAcquire("attacker") > 0);
+
+        // When
+        // Flood new keys to push the throttled bucket out
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("key-" + i);
+        }
+
+        // Then
+        assertTrue(limiter.tryAcquire("attacker") > 0);
+        assertEquals(10, limiter.size());
+    }
+
+    @Test
+    void shouldThrottleNewKeysInOverflowBucketsWhenFull() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // When
+        long admitted = limiter.tryAcquire("c");
+        long throttled = limiter.tryAcquire("c");
+
+        // Then
+        assertEquals(0, admitted);
+        assertEquals(SECOND, throttled);
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void shouldAdmitNewClientsWhileFloodFillsTheMap() {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 10, clock::get);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("10.0.0." + i);
+        }
+
+        // When
+        long legitimate = limiter.tryAcquire("192.168.1.20");
+
+        // Then
+        assertEquals(0, legitimate);
+        assertEquals(10, limiter.size());
+    }
+
+    @Test
+    void shouldNotOverAdmitUnderContention() throws Exception {
+        // Given
+        AtomicLong clock = new AtomicLong(SECOND);
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 1, 100, clock::get);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("shared") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        done.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then
+        assertEquals(100, allowed.get());
+    }
+}
@@ -39,6 +39,15 @@ const Header: React.FC<HeaderProps> = ({
                 <div className="flex items-center space-x-3">
                     {isAuthenticated ? (
                         <>
+                            {/* 32px thumbnail of the avatar */}
+                            {user && (user.avatarThumbnailUrl || user.avatarUrl) && (
+                                <img
+                                    src={user.avatarThumbnailUrl || user.avatarUrl}
+                                    alt={user.name}
+                                    className="w-8 h-8 rounded-full object-cover border border-gray-600"
+                                    data-testid="header-avatar"
+                                />
+                            )}
                             <button
                                 onClick={handleLogout}
                                 className="px-4 py-2 bg-red-600 text-white font-bold rounded-lg hover:bg-red-700 transition-colors shadow-md"
@@ -13,6 +13,7 @@ interface User {
   location?: string;
   githubLink?: string;
   avatarUrl?: string;
+  avatarThumbnailUrl?: string;
 }
 
 interface AuthContextType {